@@ -0,0 +1,63 @@
+package com.github.frank.auth.service;
+
+import com.github.frank.auth.dto.AuthUser;
+import com.github.frank.common.invalidation.LocalInvalidationBus;
+import com.github.frank.system.dto.UserAuthView;
+import com.github.frank.system.entity.Role;
+import com.github.frank.system.repository.RoleRepository;
+import com.github.frank.system.service.RoleCatalog;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * CustomUserDetailsService 缓存未命中时由认证投影（每个角色一行）构建 AuthUser 的开销：
+ * 从角色目录取共享的 GrantedAuthority，对比每次新建 SimpleGrantedAuthority。
+ *
+ * @author Frank An
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AuthorityMappingBenchmark {
+
+    @Param({"1", "3", "8"})
+    public int roleCount;
+
+    private RoleCatalog roleCatalog;
+    private List<UserAuthView> rows;
+
+    @Setup
+    public void setup() {
+        var roles = new ArrayList<Role>();
+        rows = new ArrayList<>();
+        for (int i = 0; i < roleCount; i++) {
+            var role = new Role();
+            role.setId((long) i + 1);
+            role.setName("ROLE_" + i);
+            roles.add(role);
+            rows.add(new UserAuthView(1L, "benchmark-user", "{noop}password", "user@example.com",
+                    true, 0, null, role.getName()));
+        }
+        var roleRepository = mock(RoleRepository.class);
+        when(roleRepository.findAll()).thenReturn(roles);
+        roleCatalog = new RoleCatalog(roleRepository, new LocalInvalidationBus());
+        roleCatalog.load();
+    }
+
+    @Benchmark
+    public AuthUser catalogAuthorities() {
+        return AuthUser.fromAuthView(rows, roleCatalog::authorityOf);
+    }
+
+    @Benchmark
+    public AuthUser newAuthorities() {
+        return AuthUser.fromAuthView(rows, SimpleGrantedAuthority::new);
+    }
+}
@@ -0,0 +1,72 @@
+package com.github.frank.auth.service;
+
+import com.github.frank.auth.dto.AuthUser;
+import com.github.frank.system.entity.User;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+
+import javax.crypto.SecretKey;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对比旧过滤器先校验再解析的两次验签与 verify 单次验签的单请求开销。
+ * 每 pod 3~5k req/s 时，节省的 CPU 时间 ≈ (legacy - singlePass) × QPS。
+ * 同时覆盖登录与刷新时的签发开销 (generateToken)。
+ *
+ * @author Frank An
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtServiceBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-should-be-very-long-and-secure-at-least-256-bits";
+
+    private JwtService jwtService;
+    private JwtService cachingJwtService;
+    private SecretKey key;
+    private AuthUser user;
+    private String token;
+
+    @Setup
+    public void setup() {
+        jwtService = new JwtService(JwtKeyRing.hmac(SECRET), 30, false, 0);
+        cachingJwtService = new JwtService(JwtKeyRing.hmac(SECRET), 30, true, 1024);
+        key = Keys.hmacShaKeyFor(SECRET.getBytes());
+
+        var entity = new User();
+        entity.setId(1L);
+        entity.setUsername("benchmark-user");
+        user = AuthUser.fromUser(entity);
+        token = jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(user);
+    }
+
+    /**
+     * 原 JwtAuthenticationFilter 的路径：每次新建 parser，验签两次
+     */
+    @Benchmark
+    public String legacyValidateThenParse() {
+        var validated = Jwts.parser().verifyWith(key).build().parseSignedClaims(token);
+        if (validated.getPayload().getExpiration().toInstant().isBefore(Instant.now())) {
+            return null;
+        }
+        return Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload().getSubject();
+    }
+
+    @Benchmark
+    public String singlePassVerify() {
+        return jwtService.verify(token).map(JwtService.JwtTokenInfo::username).orElse(null);
+    }
+
+    @Benchmark
+    public String cachedVerify() {
+        return cachingJwtService.verify(token).map(JwtService.JwtTokenInfo::username).orElse(null);
+    }
+}
@@ -0,0 +1,128 @@
+package com.github.frank.common.config;
+
+import com.github.frank.auth.dto.AuthUser;
+import com.github.frank.auth.repository.RevokedTokenRepository;
+import com.github.frank.auth.service.AccountVersionCache;
+import com.github.frank.auth.service.JwtKeyRing;
+import com.github.frank.auth.service.JwtService;
+import com.github.frank.auth.service.TokenRevocationService;
+import com.github.frank.common.invalidation.LocalInvalidationBus;
+import com.github.frank.common.metrics.AuthMetrics;
+import com.github.frank.system.dto.UserAuthView;
+import com.github.frank.system.entity.Role;
+import com.github.frank.system.repository.RoleRepository;
+import com.github.frank.system.repository.UserRepository;
+import com.github.frank.system.service.RoleCatalog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 由 Mock 请求驱动 JwtAuthenticationFilter 的完整处理：结构检查、验签、撤销检查、用户加载与安全上下文设置。
+ * db-verified 模式下用户加载为缓存命中路径（不含数据库往返），数据库耗时见 auth.user.load 指标。
+ *
+ * @author Frank An
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-should-be-very-long-and-secure-at-least-256-bits";
+    private static final FilterChain NOOP_CHAIN = (request, response) -> {
+    };
+
+    @Param({"DB_VERIFIED", "CLAIMS_TRUSTED"})
+    public JwtAuthenticationFilter.AuthenticationMode mode;
+
+    private JwtAuthenticationFilter filter;
+    private MockHttpServletRequest authenticatedRequest;
+    private MockHttpServletRequest anonymousRequest;
+    private MockHttpServletRequest invalidTokenRequest;
+    private MockHttpServletRequest malformedTokenRequest;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setup() {
+        var bus = new LocalInvalidationBus();
+        var roleRepository = mock(RoleRepository.class);
+        when(roleRepository.findAll()).thenReturn(List.of(role(1L, "ROLE_USER"), role(2L, "ROLE_ADMIN")));
+        var roleCatalog = new RoleCatalog(roleRepository, bus);
+        roleCatalog.load();
+        var revocationService = new TokenRevocationService(mock(RevokedTokenRepository.class), mock(JdbcTemplate.class),
+                bus, 100_000, 0.01);
+
+        var user = AuthUser.fromAuthView(List.of(
+                new UserAuthView(1L, "benchmark-user", "{noop}password", "user@example.com", true, 0, null, "ROLE_USER"),
+                new UserAuthView(1L, "benchmark-user", "{noop}password", "user@example.com", true, 0, null, "ROLE_ADMIN")),
+                roleCatalog::authorityOf);
+        var jwtService = new JwtService(JwtKeyRing.hmac(SECRET), 30, false, 0);
+        var token = jwtService.generateToken(user);
+
+        var userRepository = mock(UserRepository.class);
+        when(userRepository.findAccountVersionByUsername("benchmark-user")).thenReturn(Optional.of(0L));
+        var accountVersions = new AccountVersionCache(userRepository, bus, new SimpleMeterRegistry(), 10_000, Duration.ofMinutes(5));
+
+        filter = new JwtAuthenticationFilter(jwtService, revocationService, username -> user, roleCatalog,
+                accountVersions, mode, new AuthMetrics(new SimpleMeterRegistry()));
+
+        authenticatedRequest = request("Bearer " + token);
+        anonymousRequest = request(null);
+        invalidTokenRequest = request("Bearer " + token.substring(0, token.length() - 4) + "AAAA");
+        malformedTokenRequest = request("Bearer not-a-jwt");
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public void authenticated() throws Exception {
+        filter.doFilter(authenticatedRequest, response, NOOP_CHAIN);
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public void anonymous() throws Exception {
+        filter.doFilter(anonymousRequest, response, NOOP_CHAIN);
+    }
+
+    @Benchmark
+    public void invalidSignature() throws Exception {
+        filter.doFilter(invalidTokenRequest, response, NOOP_CHAIN);
+    }
+
+    /**
+     * 结构检查即被拒绝，不截取、不验签
+     */
+    @Benchmark
+    public void malformedToken() throws Exception {
+        filter.doFilter(malformedTokenRequest, response, NOOP_CHAIN);
+    }
+
+    private static MockHttpServletRequest request(String authorization) {
+        var request = new MockHttpServletRequest("GET", "/api/v1/users/me");
+        request.setRemoteAddr("10.0.0.1");
+        if (authorization != null) {
+            request.addHeader(HttpHeaders.AUTHORIZATION, authorization);
+        }
+        return request;
+    }
+
+    private static Role role(Long id, String name) {
+        var role = new Role();
+        role.setId(id);
+        role.setName(name);
+        return role;
+    }
+}
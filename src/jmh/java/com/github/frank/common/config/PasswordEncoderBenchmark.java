@@ -0,0 +1,55 @@
+package com.github.frank.common.config;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 不同成本下单次密码哈希的耗时，用于选择 auth.password-encoder.* 配置并估算哈希线程池容量：
+ * 每核每秒可处理的登录数 ≈ 1000 / matches 毫秒数。
+ *
+ * @author Frank An
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1, time = 5)
+@Measurement(iterations = 3, time = 5)
+public class PasswordEncoderBenchmark {
+
+    private static final String PASSWORD = "benchmark-password";
+
+    /**
+     * bcrypt-{strength} 或 argon2-{memoryKib}-{iterations}
+     */
+    @Param({"bcrypt-10", "bcrypt-12", "argon2-16384-2", "argon2-65536-3"})
+    public String encoderSpec;
+
+    private PasswordEncoder encoder;
+    private String encoded;
+
+    @Setup
+    public void setup() {
+        var parts = encoderSpec.split("-");
+        encoder = switch (parts[0]) {
+            case PasswordEncoderConfig.BCRYPT -> new BCryptPasswordEncoder(Integer.parseInt(parts[1]));
+            case PasswordEncoderConfig.ARGON2 -> new Argon2PasswordEncoder(16, 32, 1,
+                    Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
+            default -> throw new IllegalArgumentException("Unknown encoder: " + encoderSpec);
+        };
+        encoded = encoder.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public String encode() {
+        return encoder.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return encoder.matches(PASSWORD, encoded);
+    }
+}
@@ -0,0 +1,78 @@
+package com.github.frank.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 压测参数，均来自 loadTest.* 系统属性（Gradle 中以 -PloadTest.xxx 传入）
+ *
+ * @param rate        开放模型的到达率（请求/秒），与响应快慢无关
+ * @param duration    计入统计的压测时长
+ * @param warmup      预热时长，期间的请求不计入统计
+ * @param users       预先批量写入的用户数
+ * @param tokens      预先登录获取的访问令牌数，供 /users/me 使用
+ * @param maxInFlight 客户端同时未完成请求的上限，超出的请求记为 dropped
+ * @param mix         操作 -> 权重
+ * @param label       报告名称，用于区分分支或配置
+ * @param reportDir   JSON 报告输出目录
+ * @author Frank An
+ */
+record LoadTestConfig(int rate,
+                      Duration duration,
+                      Duration warmup,
+                      int users,
+                      int tokens,
+                      int maxInFlight,
+                      Map<Operation, Integer> mix,
+                      String label,
+                      Path reportDir) {
+
+    enum Operation {
+        LOGIN,
+        REGISTER,
+        ME
+    }
+
+    LoadTestConfig {
+        if (rate <= 0 || users <= 0 || tokens <= 0 || maxInFlight <= 0) {
+            throw new IllegalArgumentException("loadTest.rate, users, tokens and maxInFlight must be positive");
+        }
+    }
+
+    static LoadTestConfig fromSystemProperties() {
+        return new LoadTestConfig(
+                Integer.parseInt(property("rate", "200")),
+                Duration.ofSeconds(Long.parseLong(property("durationSeconds", "60"))),
+                Duration.ofSeconds(Long.parseLong(property("warmupSeconds", "15"))),
+                Integer.parseInt(property("users", "10000")),
+                Integer.parseInt(property("tokens", "1000")),
+                Integer.parseInt(property("maxInFlight", "5000")),
+                parseMix(property("mix", "login:1,register:1,me:8")),
+                property("label", "platform-threads"),
+                Path.of(property("reportDir", "build/reports/load-test")));
+    }
+
+    /**
+     * 格式：login:1,register:1,me:8
+     */
+    static Map<Operation, Integer> parseMix(String value) {
+        var mix = new LinkedHashMap<Operation, Integer>();
+        for (var entry : value.split(",")) {
+            var parts = entry.trim().split(":");
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                mix.put(Operation.valueOf(parts[0].trim().toUpperCase()), weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("loadTest.mix has no operation with a positive weight: " + value);
+        }
+        return mix;
+    }
+
+    private static String property(String name, String defaultValue) {
+        return System.getProperty("loadTest." + name, defaultValue);
+    }
+}
@@ -0,0 +1,158 @@
+package com.github.frank.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.github.frank.NexusAuthServiceApplication;
+import com.github.frank.loadtest.LoadTestConfig.Operation;
+import com.github.frank.loadtest.OpenModelWorkload.OperationStats;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 端到端压测入口：以 loadtest profile 启动应用（内存 H2 + Flyway），批量写入用户，预先登录获取令牌，
+ * 预热后按开放模型运行，输出吞吐量、延迟分位数与错误率，并写入 JSON 报告便于比较分支和配置。
+ * <p>
+ * ./gradlew loadTest [-PvirtualThreads] [-PloadTest.rate=200] [-PloadTest.mix=login:1,register:1,me:8] [-PloadTest.label=main]
+ *
+ * @author Frank An
+ */
+public final class LoadTestRunner {
+
+    /**
+     * 单个操作的结果，延迟单位为毫秒
+     */
+    record OperationReport(long requests, double throughput, long errors, long dropped, double errorRate,
+                           double p50, double p90, double p99, double p999, double max) {
+    }
+
+    record Report(String label, List<String> profiles, Instant startedAt, LoadTestConfig config,
+                  Map<Operation, OperationReport> operations) {
+    }
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        var config = LoadTestConfig.fromSystemProperties();
+        var application = new SpringApplication(NexusAuthServiceApplication.class);
+        application.setAdditionalProfiles("loadtest");
+
+        try (var context = application.run(args)) {
+            var baseUri = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port"));
+            var profiles = Arrays.asList(context.getEnvironment().getActiveProfiles());
+
+            long seedStart = System.nanoTime();
+            UserSeeder.seed(context.getBean(JdbcTemplate.class), context.getBean(PasswordEncoder.class), config.users());
+            System.out.printf("Seeded %d users in %d ms%n", config.users(), (System.nanoTime() - seedStart) / 1_000_000);
+
+            var tokens = loginTokens(baseUri, context, config);
+            var workload = new OpenModelWorkload(baseUri, config, tokens);
+            try {
+                System.out.printf("Warming up for %s at %d req/s%n", config.warmup(), config.rate());
+                workload.run(config.warmup());
+                var startedAt = Instant.now();
+                System.out.printf("Measuring for %s at %d req/s (profiles %s)%n", config.duration(), config.rate(), profiles);
+                var stats = workload.run(config.duration());
+                report(new Report(config.label(), profiles, startedAt, config, toReports(stats, config)));
+            } finally {
+                workload.close();
+            }
+        }
+    }
+
+    /**
+     * 并发登录前 tokens 个压测用户，取得 /users/me 使用的访问令牌
+     */
+    private static List<String> loginTokens(URI baseUri, ConfigurableApplicationContext context, LoadTestConfig config)
+            throws Exception {
+        var objectMapper = context.getBean(ObjectMapper.class);
+        int count = Math.min(config.tokens(), config.users());
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor();
+             var httpClient = HttpClient.newBuilder().executor(executor).build()) {
+            var futures = new ArrayList<Future<String>>(count);
+            for (int i = 0; i < count; i++) {
+                var body = """
+                        {"username":"%s","password":"%s"}""".formatted(UserSeeder.username(i), UserSeeder.PASSWORD);
+                var request = HttpRequest.newBuilder(baseUri.resolve("/api/v1/auth/login"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build();
+                futures.add(executor.submit(() -> {
+                    var response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+                    if (response.statusCode() != 200) {
+                        throw new IllegalStateException("Login failed with " + response.statusCode() + ": " + response.body());
+                    }
+                    return objectMapper.readTree(response.body()).get("token").asText();
+                }));
+            }
+            var tokens = new ArrayList<String>(count);
+            for (var future : futures) {
+                tokens.add(future.get());
+            }
+            return tokens;
+        }
+    }
+
+    private static Map<Operation, OperationReport> toReports(Map<Operation, OperationStats> stats, LoadTestConfig config) {
+        double seconds = config.duration().toMillis() / 1000.0;
+        var reports = new LinkedHashMap<Operation, OperationReport>();
+        stats.forEach((operation, operationStats) -> {
+            var histogram = operationStats.latencyMicros();
+            long requests = histogram.getTotalCount();
+            long errors = operationStats.errors().get();
+            long dropped = operationStats.dropped().get();
+            long attempted = requests + dropped;
+            reports.put(operation, new OperationReport(
+                    requests,
+                    (requests - errors) / seconds,
+                    errors,
+                    dropped,
+                    attempted == 0 ? 0 : (double) (errors + dropped) / attempted,
+                    millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(90)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue())));
+        });
+        return reports;
+    }
+
+    private static void report(Report report) throws IOException {
+        System.out.printf("%n%-10s %10s %12s %8s %8s %9s %9s %9s %9s %9s%n",
+                "operation", "requests", "ok req/s", "errors", "dropped", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        report.operations().forEach((operation, r) -> System.out.printf(
+                "%-10s %10d %12.1f %8d %8d %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                operation.name().toLowerCase(), r.requests(), r.throughput(), r.errors(), r.dropped(),
+                r.p50(), r.p90(), r.p99(), r.p999(), r.max()));
+
+        var reportDir = report.config().reportDir();
+        Files.createDirectories(reportDir);
+        var file = reportDir.resolve(report.label() + ".json");
+        new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(file.toFile(), report);
+        System.out.printf("%nReport written to %s%n", file.toAbsolutePath());
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
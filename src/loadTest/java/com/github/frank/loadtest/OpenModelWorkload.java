@@ -0,0 +1,147 @@
+package com.github.frank.loadtest;
+
+import com.github.frank.loadtest.LoadTestConfig.Operation;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+/**
+ * 开放模型负载：按固定到达率发出请求，不等待前一个请求完成，服务变慢时排队与超时会如实体现在结果中。
+ * 延迟从请求的计划发出时间算起，而不是实际发出时间，避免协调遗漏 (coordinated omission) 低估尾延迟。
+ *
+ * @author Frank An
+ */
+final class OpenModelWorkload {
+
+    /**
+     * 单个操作的统计：延迟单位为微秒；errors 包含非 2xx 响应与客户端异常，dropped 为超出在途上限未发出的请求
+     */
+    record OperationStats(Histogram latencyMicros, AtomicLong errors, AtomicLong dropped) {
+
+        static OperationStats create() {
+            return new OperationStats(new ConcurrentHistogram(3), new AtomicLong(), new AtomicLong());
+        }
+    }
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+
+    private final URI baseUri;
+    private final LoadTestConfig config;
+    private final List<String> tokens;
+    private final Operation[] schedule;
+    private final AtomicLong registrations = new AtomicLong();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final HttpClient httpClient;
+
+    OpenModelWorkload(URI baseUri, LoadTestConfig config, List<String> tokens) {
+        this.baseUri = baseUri;
+        this.config = config;
+        this.tokens = tokens;
+        this.schedule = schedule(config.mix());
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(REQUEST_TIMEOUT)
+                .executor(executor)
+                .build();
+    }
+
+    /**
+     * 以配置的到达率运行指定时长，返回各操作的统计；调用方丢弃预热阶段的结果即可
+     */
+    Map<Operation, OperationStats> run(Duration duration) throws InterruptedException {
+        var stats = new EnumMap<Operation, OperationStats>(Operation.class);
+        config.mix().keySet().forEach(operation -> stats.put(operation, OperationStats.create()));
+        var inFlight = new Semaphore(config.maxInFlight());
+
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / config.rate();
+        long total = duration.toNanos() / intervalNanos;
+        long start = System.nanoTime();
+        for (long i = 0; i < total; i++) {
+            long intendedStart = start + i * intervalNanos;
+            long delay = intendedStart - System.nanoTime();
+            if (delay > 0) {
+                LockSupport.parkNanos(delay);
+            }
+            var operation = schedule[(int) (i % schedule.length)];
+            var operationStats = stats.get(operation);
+            if (!inFlight.tryAcquire()) {
+                operationStats.dropped().incrementAndGet();
+                continue;
+            }
+            httpClient.sendAsync(request(operation), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, failure) -> {
+                        long latencyMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intendedStart);
+                        operationStats.latencyMicros().recordValue(latencyMicros);
+                        if (failure != null || response.statusCode() >= 400) {
+                            operationStats.errors().incrementAndGet();
+                        }
+                        inFlight.release();
+                    });
+        }
+        // 等待最后一批请求完成或超时
+        if (!inFlight.tryAcquire(config.maxInFlight(), REQUEST_TIMEOUT.toSeconds() + 5, TimeUnit.SECONDS)) {
+            System.err.printf("%d requests still in flight after %s%n",
+                    config.maxInFlight() - inFlight.availablePermits(), REQUEST_TIMEOUT);
+        } else {
+            inFlight.release(config.maxInFlight());
+        }
+        return stats;
+    }
+
+    void close() {
+        executor.shutdownNow();
+    }
+
+    private HttpRequest request(Operation operation) {
+        var random = ThreadLocalRandom.current();
+        return switch (operation) {
+            case LOGIN -> post("/api/v1/auth/login", """
+                    {"username":"%s","password":"%s"}""".formatted(
+                    UserSeeder.username(random.nextInt(config.users())), UserSeeder.PASSWORD));
+            case REGISTER -> {
+                var username = "lt-new-" + registrations.incrementAndGet() + "-" + Long.toHexString(random.nextLong());
+                yield post("/api/v1/auth/register", """
+                        {"username":"%s","password":"%s","email":"%s@load.test"}""".formatted(
+                        username, UserSeeder.PASSWORD, username));
+            }
+            case ME -> HttpRequest.newBuilder(baseUri.resolve("/api/v1/users/me"))
+                    .header("Authorization", "Bearer " + tokens.get(random.nextInt(tokens.size())))
+                    .timeout(REQUEST_TIMEOUT)
+                    .GET()
+                    .build();
+        };
+    }
+
+    private HttpRequest post(String path, String json) {
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+                .header("Content-Type", "application/json")
+                .timeout(REQUEST_TIMEOUT)
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    /**
+     * 按权重展开为固定的轮转序列（如 1:1:8 展开为 10 个槽位），保证任意时段内的操作比例稳定
+     */
+    private static Operation[] schedule(Map<Operation, Integer> mix) {
+        return mix.entrySet().stream()
+                .flatMap(entry -> Stream.generate(entry::getKey).limit(entry.getValue()))
+                .toArray(Operation[]::new);
+    }
+}
@@ -0,0 +1,39 @@
+package com.github.frank.loadtest;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+
+/**
+ * 绕过注册接口批量写入压测用户：所有用户共用同一个密码，只哈希一次
+ *
+ * @author Frank An
+ */
+final class UserSeeder {
+
+    static final String PASSWORD = "load-test-password";
+    private static final int BATCH_SIZE = 1000;
+
+    private UserSeeder() {
+    }
+
+    static String username(int index) {
+        return "lt-user-" + index;
+    }
+
+    static void seed(JdbcTemplate jdbcTemplate, PasswordEncoder passwordEncoder, int users) {
+        var encodedPassword = passwordEncoder.encode(PASSWORD);
+        for (int from = 0; from < users; from += BATCH_SIZE) {
+            var batch = new ArrayList<Object[]>(BATCH_SIZE);
+            for (int i = from; i < Math.min(users, from + BATCH_SIZE); i++) {
+                batch.add(new Object[]{username(i), encodedPassword, username(i) + "@load.test"});
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO users (username, password, email) VALUES (?, ?, ?)", batch);
+        }
+        jdbcTemplate.update("""
+                INSERT INTO user_roles (user_id, role_id)
+                SELECT u.id, r.id FROM users u, roles r
+                WHERE u.username LIKE 'lt-user-%' AND r.name = 'ROLE_USER'""");
+    }
+}
@@ -2,12 +2,15 @@ package com.github.frank.auth.controller;
 
 import com.github.frank.auth.dto.LoginRequest;
 import com.github.frank.auth.dto.LoginResponse;
+import com.github.frank.auth.dto.LogoutRequest;
+import com.github.frank.auth.dto.RefreshRequest;
 import com.github.frank.auth.dto.RegisterRequest;
 import com.github.frank.auth.dto.UserInfo;
 import com.github.frank.auth.service.AuthService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -27,6 +30,19 @@ public class AuthController {
         return ResponseEntity.ok(authService.login(request));
     }
 
+    @PostMapping("/refresh")
+    public ResponseEntity<LoginResponse> refresh(@Valid @RequestBody RefreshRequest request) {
+        return ResponseEntity.ok(authService.refresh(request));
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(Authentication authentication,
+                                       @RequestBody(required = false) LogoutRequest request) {
+        // JwtAuthenticationFilter 将原始令牌作为凭证放入认证对象
+        authService.logout((String) authentication.getCredentials(), request);
+        return ResponseEntity.noContent().build();
+    }
+
     @PostMapping("/register")
     public ResponseEntity<UserInfo> register(@Valid @RequestBody RegisterRequest request) {
         return ResponseEntity.ok(authService.register(request));
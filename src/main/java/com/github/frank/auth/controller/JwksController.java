@@ -0,0 +1,40 @@
+package com.github.frank.auth.controller;
+
+import com.github.frank.auth.service.JwtKeyRing;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * 公开验签公钥，下游服务缓存后即可本地验签。
+ * 响应带强 ETag，If-None-Match 命中时返回 304；max-age 应小于 jwt.signing.activation-delay，
+ * 保证新密钥开始签名前下游缓存已经刷新。
+ *
+ * @author Frank An
+ */
+@RestController
+public class JwksController {
+
+    private final JwtKeyRing keyRing;
+    private final CacheControl cacheControl;
+
+    public JwksController(JwtKeyRing keyRing,
+                          @Value("${jwt.signing.jwks-max-age:5m}") Duration maxAge) {
+        this.keyRing = keyRing;
+        this.cacheControl = CacheControl.maxAge(maxAge).cachePublic();
+    }
+
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<Map<String, Object>> jwks() {
+        var jwkSet = keyRing.jwkSet();
+        return ResponseEntity.ok()
+                .eTag(jwkSet.etag())
+                .cacheControl(cacheControl)
+                .body(jwkSet.body());
+    }
+}
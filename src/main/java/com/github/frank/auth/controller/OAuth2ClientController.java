@@ -0,0 +1,32 @@
+package com.github.frank.auth.controller;
+
+import com.github.frank.auth.dto.ClientRegistrationRequest;
+import com.github.frank.auth.dto.ClientRegistrationResponse;
+import com.github.frank.auth.service.OAuth2ClientService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 管理 OAuth2 机器客户端，客户端通过 POST /oauth2/token (grant_type=client_credentials) 获取令牌
+ *
+ * @author Frank An
+ */
+@RestController
+@RequestMapping("/api/v1/auth/clients")
+@RequiredArgsConstructor
+public class OAuth2ClientController {
+
+    private final OAuth2ClientService oAuth2ClientService;
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping
+    public ResponseEntity<ClientRegistrationResponse> register(@Valid @RequestBody ClientRegistrationRequest request) {
+        return ResponseEntity.ok(oAuth2ClientService.register(request));
+    }
+}
@@ -0,0 +1,40 @@
+package com.github.frank.auth.controller;
+
+import com.github.frank.auth.dto.IntrospectionBatchRequest;
+import com.github.frank.auth.dto.IntrospectionBatchResponse;
+import com.github.frank.auth.dto.IntrospectionResponse;
+import com.github.frank.auth.service.TokenIntrospectionService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 令牌内省：单个令牌按 RFC 7662 以表单提交，批量接口以 JSON 提交，仅网关和管理员可调用
+ *
+ * @author Frank An
+ */
+@RestController
+@RequestMapping("/api/v1/auth/introspect")
+@RequiredArgsConstructor
+@PreAuthorize("hasAnyRole('ADMIN', 'GATEWAY')")
+public class TokenIntrospectionController {
+
+    private final TokenIntrospectionService introspectionService;
+
+    @PostMapping(consumes = MediaType.APPLICATION_FORM_URLENCODED_VALUE)
+    public ResponseEntity<IntrospectionResponse> introspect(@RequestParam("token") String token) {
+        return ResponseEntity.ok(introspectionService.introspect(token));
+    }
+
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<IntrospectionBatchResponse> introspectBatch(@Valid @RequestBody IntrospectionBatchRequest request) {
+        return ResponseEntity.ok(new IntrospectionBatchResponse(introspectionService.introspectAll(request.tokens())));
+    }
+}
@@ -0,0 +1,61 @@
+package com.github.frank.auth.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.frank.auth.dto.UserImportProgress;
+import com.github.frank.auth.service.UserImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 批量导入用户。请求体为 NDJSON（每行一个用户）或带表头的 CSV，边读边写；
+ * 响应为 NDJSON，每个批次完成后输出一行进度，最后一行为汇总。
+ *
+ * @author Frank An
+ */
+@RestController
+@RequestMapping("/api/v1/auth/users")
+@RequiredArgsConstructor
+public class UserImportController {
+    private static final String NDJSON = "application/x-ndjson";
+
+    private final UserImportService userImportService;
+    private final ObjectMapper objectMapper;
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping(value = "/import", consumes = {NDJSON, "text/csv"})
+    public void importUsers(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        var format = MediaType.parseMediaType(request.getContentType()).isCompatibleWith(MediaType.parseMediaType(NDJSON))
+                ? UserImportService.ImportFormat.NDJSON
+                : UserImportService.ImportFormat.CSV;
+
+        response.setContentType(NDJSON);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        var writer = response.getWriter();
+        var body = new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8);
+
+        var summary = userImportService.importUsers(body, format, progress -> write(writer, progress));
+        write(writer, summary);
+    }
+
+    private void write(PrintWriter writer, UserImportProgress progress) {
+        try {
+            writer.write(objectMapper.writeValueAsString(progress));
+            writer.write('\n');
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.github.frank.auth.dto;
+
+import com.github.frank.system.dto.UserAuthView;
+import com.github.frank.system.entity.User;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 认证主体，数据库加载和 JWT 声明两条路径都产出该类型。不可变，可安全缓存。
+ *
+ * @author Frank An
+ */
+@Getter
+@ToString(exclude = "password")
+@RequiredArgsConstructor
+public class AuthUser implements UserDetails {
+    private final Long id;
+    private final String username;
+    private final String password;
+    private final String email;
+    private final boolean enabled;
+    private final long accountVersion;
+    // 登录失败过多导致的临时锁定，null 表示未锁定
+    private final Instant lockedUntil;
+    private final Set<GrantedAuthority> authorities;
+
+    public static AuthUser fromUser(User user) {
+        return new AuthUser(
+                user.getId(),
+                user.getUsername(),
+                user.getPassword(),
+                user.getEmail(),
+                user.isEnabled(),
+                user.getAccountVersion(),
+                user.getLockedUntil(),
+                user.getRoles().stream()
+                        .map(role -> new SimpleGrantedAuthority(role.getName()))
+                        .collect(Collectors.toUnmodifiableSet()));
+    }
+
+    /**
+     * 由认证投影构建，rows 为同一用户的每个角色一行；authorityResolver 通常为 RoleCatalog::authorityOf
+     */
+    public static AuthUser fromAuthView(List<UserAuthView> rows, Function<String, GrantedAuthority> authorityResolver) {
+        var first = rows.get(0);
+        return new AuthUser(
+                first.id(),
+                first.username(),
+                first.password(),
+                first.email(),
+                first.enabled(),
+                first.accountVersion(),
+                first.lockedUntil(),
+                rows.stream()
+                        .map(UserAuthView::roleName)
+                        .filter(Objects::nonNull)
+                        .map(authorityResolver)
+                        .collect(Collectors.toUnmodifiableSet()));
+    }
+
+    public AuthUser withPassword(String encodedPassword) {
+        return new AuthUser(id, username, encodedPassword, email, enabled, accountVersion, lockedUntil, authorities);
+    }
+
+    public Set<String> roleNames() {
+        return authorities.stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return lockedUntil == null || !lockedUntil.isAfter(Instant.now());
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+}
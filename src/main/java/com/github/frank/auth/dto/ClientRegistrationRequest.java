@@ -0,0 +1,25 @@
+package com.github.frank.auth.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+
+import java.util.Set;
+
+/**
+ * @author Frank An
+ */
+public record ClientRegistrationRequest(
+        @NotBlank(message = "Client id is required")
+        @Size(max = 100, message = "Client id must be at most 100 characters")
+        @Pattern(regexp = "^[a-zA-Z0-9._-]+$", message = "Client id can only contain letters, numbers, dots, underscores and hyphens")
+        String clientId,
+
+        @NotBlank(message = "Client name is required")
+        @Size(max = 200, message = "Client name must be at most 200 characters")
+        String clientName,
+
+        @NotNull(message = "Scopes are required")
+        Set<@NotBlank String> scopes) {
+}
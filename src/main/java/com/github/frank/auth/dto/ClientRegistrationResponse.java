@@ -0,0 +1,11 @@
+package com.github.frank.auth.dto;
+
+import java.util.Set;
+
+/**
+ * clientSecret 只在创建时返回一次，库中仅保存哈希
+ *
+ * @author Frank An
+ */
+public record ClientRegistrationResponse(String clientId, String clientSecret, Set<String> scopes) {
+}
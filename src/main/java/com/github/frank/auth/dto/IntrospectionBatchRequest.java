@@ -0,0 +1,12 @@
+package com.github.frank.auth.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+/**
+ * @author Frank An
+ */
+public record IntrospectionBatchRequest(@NotEmpty(message = "Tokens are required")
+                                        List<String> tokens) {
+}
@@ -0,0 +1,11 @@
+package com.github.frank.auth.dto;
+
+import java.util.List;
+
+/**
+ * results 与请求中的 tokens 一一对应、顺序相同
+ *
+ * @author Frank An
+ */
+public record IntrospectionBatchResponse(List<IntrospectionResponse> results) {
+}
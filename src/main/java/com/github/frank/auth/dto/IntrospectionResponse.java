@@ -0,0 +1,18 @@
+package com.github.frank.auth.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.Set;
+
+/**
+ * RFC 7662 令牌内省结果。active 为 false 时其余字段均不输出；roles、uid、ver 为扩展字段。
+ *
+ * @author Frank An
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record IntrospectionResponse(boolean active, String sub, String username, Long exp, String jti,
+                                    Set<String> roles, Long uid, Long ver) {
+
+    public static final IntrospectionResponse INACTIVE =
+            new IntrospectionResponse(false, null, null, null, null, null, null, null);
+}
@@ -3,6 +3,6 @@ package com.github.frank.auth.dto;
 /**
  * @author Frank An
  */
-public record LoginResponse(String token, UserInfo userInfo) {
+public record LoginResponse(String token, String refreshToken, UserInfo userInfo) {
 
 }
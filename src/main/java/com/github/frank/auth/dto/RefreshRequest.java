@@ -0,0 +1,10 @@
+package com.github.frank.auth.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+/**
+ * @author Frank An
+ */
+public record RefreshRequest(@NotBlank(message = "Refresh token is required")
+                             String refreshToken) {
+}
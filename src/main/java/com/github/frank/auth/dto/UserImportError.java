@@ -0,0 +1,7 @@
+package com.github.frank.auth.dto;
+
+/**
+ * @author Frank An
+ */
+public record UserImportError(long line, String username, String code, String message) {
+}
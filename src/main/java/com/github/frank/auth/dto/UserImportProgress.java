@@ -0,0 +1,15 @@
+package com.github.frank.auth.dto;
+
+import java.util.List;
+
+/**
+ * 导入进度，每个批次输出一行 NDJSON；errors 只包含本批次的失败行，done 为 true 的最后一行为汇总
+ *
+ * @author Frank An
+ */
+public record UserImportProgress(long processed,
+                                 long imported,
+                                 long failed,
+                                 List<UserImportError> errors,
+                                 boolean done) {
+}
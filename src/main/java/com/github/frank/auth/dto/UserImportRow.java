@@ -0,0 +1,29 @@
+package com.github.frank.auth.dto;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+import java.util.Set;
+
+/**
+ * 批量导入的一行：password 与 passwordHash 二选一，roles 为空时分配 ROLE_USER
+ *
+ * @author Frank An
+ */
+public record UserImportRow(@NotBlank(message = "Username is required")
+                            @Size(min = 4, max = 50, message = "Username must be between 4 and 50 characters")
+                            String username,
+
+                            @NotBlank(message = "Email is required")
+                            @Email(message = "Email should be valid")
+                            @Size(max = 100, message = "Email must be at most 100 characters")
+                            String email,
+
+                            @Size(min = 6, max = 100, message = "Password must be between 6 and 100 characters")
+                            String password,
+
+                            String passwordHash,
+
+                            Set<String> roles) {
+}
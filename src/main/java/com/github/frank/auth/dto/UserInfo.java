@@ -23,4 +23,12 @@ public record UserInfo(Long id,
                         .map(Role::getName)
                         .collect(Collectors.toSet()));
     }
+
+    public static UserInfo fromAuthUser(AuthUser user) {
+        return new UserInfo(
+                user.getId(),
+                user.getUsername(),
+                user.getEmail(),
+                user.roleNames());
+    }
 }
@@ -0,0 +1,57 @@
+package com.github.frank.auth.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.proxy.HibernateProxy;
+
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * @author Frank An
+ */
+@Entity
+@Table(name = "signing_keys")
+@Getter
+@Setter
+@ToString(exclude = "privateKey")
+@RequiredArgsConstructor
+public class SigningKey {
+    @Id
+    @Column(length = 64)
+    private String kid;
+
+    @Column(length = 16, nullable = false)
+    private String algorithm;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String publicKey;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String privateKey;
+
+    @Column(nullable = false)
+    private Instant activatesAt;
+
+    @Column(nullable = false, insertable = false, updatable = false)
+    private Instant createdAt;
+
+    @Override
+    public final boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null) return false;
+        Class<?> oEffectiveClass = o instanceof HibernateProxy ? ((HibernateProxy) o).getHibernateLazyInitializer().getPersistentClass() : o.getClass();
+        Class<?> thisEffectiveClass = this instanceof HibernateProxy ? ((HibernateProxy) this).getHibernateLazyInitializer().getPersistentClass() : this.getClass();
+        if (thisEffectiveClass != oEffectiveClass) return false;
+        SigningKey that = (SigningKey) o;
+        return getKid() != null && Objects.equals(getKid(), that.getKid());
+    }
+
+    @Override
+    public final int hashCode() {
+        return this instanceof HibernateProxy ? ((HibernateProxy) this).getHibernateLazyInitializer().getPersistentClass().hashCode() : getClass().hashCode();
+    }
+}
@@ -0,0 +1,18 @@
+package com.github.frank.auth.repository;
+
+import com.github.frank.auth.entity.SigningKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface SigningKeyRepository extends JpaRepository<SigningKey, String> {
+    List<SigningKey> findAllByOrderByActivatesAtAsc();
+
+    @Modifying
+    @Query("delete from SigningKey k where k.kid in :kids")
+    int deleteByKids(@Param("kids") Collection<String> kids);
+}
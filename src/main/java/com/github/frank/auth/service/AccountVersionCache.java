@@ -0,0 +1,54 @@
+package com.github.frank.auth.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.frank.common.invalidation.InvalidationBus;
+import com.github.frank.common.invalidation.InvalidationEvent;
+import com.github.frank.system.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 每个用户当前的 account_version，供 claims-trusted 模式在不加载用户的前提下拒绝旧令牌。
+ * 角色、状态、密码变更会递增版本号并发布 USER 失效事件，本缓存据此在所有节点上失效；
+ * TTL 只是失效事件丢失时的兜底。
+ *
+ * @author Frank An
+ */
+@Component
+public class AccountVersionCache {
+
+    // 用户不存在时缓存的哨兵值，同样受 TTL 和 USER 失效约束；已删除用户的令牌不会每次请求都查库
+    private static final long MISSING_USER = Long.MAX_VALUE;
+
+    private final UserRepository userRepository;
+    private final Cache<String, Long> versions;
+
+    public AccountVersionCache(UserRepository userRepository,
+                               InvalidationBus invalidationBus,
+                               MeterRegistry meterRegistry,
+                               @Value("${auth.account-version-cache.maximum-size:100000}") long maximumSize,
+                               @Value("${auth.account-version-cache.ttl:5m}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, versions, "accountVersions");
+        invalidationBus.subscribe(InvalidationEvent.Type.USER, versions::invalidateAll);
+    }
+
+    /**
+     * 令牌中的版本号不小于用户当前版本时返回 true；用户已不存在时返回 false
+     */
+    public boolean isCurrent(String username, long tokenVersion) {
+        long current = versions.get(username,
+                name -> userRepository.findAccountVersionByUsername(name).orElse(MISSING_USER));
+        return current != MISSING_USER && tokenVersion >= current;
+    }
+}
@@ -1,7 +1,10 @@
 package com.github.frank.auth.service;
 
+import com.github.frank.auth.dto.AuthUser;
 import com.github.frank.auth.dto.LoginRequest;
 import com.github.frank.auth.dto.LoginResponse;
+import com.github.frank.auth.dto.LogoutRequest;
+import com.github.frank.auth.dto.RefreshRequest;
 import com.github.frank.auth.dto.RegisterRequest;
 import com.github.frank.auth.dto.UserInfo;
 import com.github.frank.common.exception.BusinessException;
@@ -9,15 +12,22 @@ import com.github.frank.common.exception.ErrorCode;
 import com.github.frank.system.entity.User;
 import com.github.frank.system.repository.RoleRepository;
 import com.github.frank.system.repository.UserRepository;
+import com.github.frank.system.service.RoleCatalog;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.LockedException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Set;
 
 /**
  * @author Frank An
@@ -26,70 +36,136 @@ import org.springframework.transaction.annotation.Transactional;
 @Service
 @RequiredArgsConstructor
 public class AuthService {
+    private static final String DEFAULT_ROLE = "ROLE_USER";
+
     private final AuthenticationManager authenticationManager;
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
     private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingExecutor passwordHashingExecutor;
     private final JwtService jwtService;
+    private final UserDetailsCache userDetailsCache;
+    private final RoleCatalog roleCatalog;
+    private final TransactionTemplate transactionTemplate;
+    private final RefreshTokenService refreshTokenService;
+    private final TokenRevocationService tokenRevocationService;
+    private final LoginAttemptTracker loginAttemptTracker;
+    private final ObservationRegistry observationRegistry;
 
+    /**
+     * 登录与注册包在 Observation 中：产生 auth.login / auth.register 计时器（error 标签区分失败），
+     * 接入 tracing 后同时成为 span；密码哈希与查库的细分耗时见 auth.password.encoder 和 auth.user.load
+     */
     public LoginResponse login(LoginRequest request) {
+        return Observation.createNotStarted("auth.login", observationRegistry)
+                .observe(() -> authenticate(request));
+    }
+
+    private LoginResponse authenticate(LoginRequest request) {
+        // 0. 账号处于锁定期时直接拒绝，不占用哈希线程
+        loginAttemptTracker.checkNotLocked(request.username());
         try {
-            // 1. 先尝试认证
-            authenticationManager.authenticate(
+            // 1. 先尝试认证：用户在当前线程加载，只有密码校验在哈希线程池中执行（见 SecurityConfig#authenticationProvider）
+            var authentication = authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(
                             request.username(),
                             request.password()
                     )
             );
 
-            // 2. 认证成功后获取用户信息
-            var user = userRepository.findByUsername(request.username())
-                    .orElseThrow(() -> new BusinessException(ErrorCode.USER_NOT_FOUND));
-
+            // 2. 认证主体即加载好的用户（id、邮箱、角色），无需再次查询
+            var user = (AuthUser) authentication.getPrincipal();
+            loginAttemptTracker.recordSuccess(user.getUsername(), user.getLockedUntil());
             var token = jwtService.generateToken(user);
+            var refreshToken = refreshTokenService.issue(user);
 
             log.debug("User {} successfully logged in", request.username());
-            return new LoginResponse(token, UserInfo.fromUser(user));
+            return new LoginResponse(token, refreshToken.value(), UserInfo.fromAuthUser(user));
 
+        } catch (LockedException e) {
+            // 其他节点写入的锁定：密码校验之前即被拒绝
+            log.warn("Locked user attempted to log in: {}", request.username());
+            throw new BusinessException(ErrorCode.ACCOUNT_LOCKED);
         } catch (AuthenticationException e) {
             log.warn("Failed to authenticate user: {}", request.username());
+            loginAttemptTracker.recordFailure(request.username());
             throw new BusinessException(ErrorCode.INVALID_CREDENTIALS);
         }
     }
 
-    @Transactional
-    public UserInfo register(RegisterRequest request) {
-        // 检查用户名是否存在
-        if (userRepository.existsByUsername(request.username())) {
-            log.warn("Username already exists: {}", request.username());
-            throw new BusinessException(ErrorCode.USERNAME_ALREADY_EXISTS);
-        }
+    /**
+     * 用刷新令牌换取新的访问令牌和刷新令牌，不做密码哈希
+     */
+    public LoginResponse refresh(RefreshRequest request) {
+        var rotation = refreshTokenService.rotate(request.refreshToken());
+        var user = rotation.user();
+        return new LoginResponse(jwtService.generateToken(user), rotation.refreshToken().value(),
+                UserInfo.fromAuthUser(user));
+    }
 
-        // 检查邮箱是否存在
-        if (userRepository.existsByEmail(request.email())) {
-            log.warn("Email already exists: {}", request.email());
-            throw new BusinessException(ErrorCode.EMAIL_ALREADY_EXISTS);
+    /**
+     * 注销：撤销当前访问令牌的 jti，并撤销请求中携带的刷新令牌所在的 family
+     */
+    public void logout(String accessToken, LogoutRequest request) {
+        jwtService.verify(accessToken).ifPresent(tokenInfo -> {
+            tokenRevocationService.revoke(tokenInfo.tokenId(), tokenInfo.expiration());
+            jwtService.evictVerified(tokenInfo.tokenId());
+            log.debug("User {} logged out", tokenInfo.username());
+        });
+        if (request != null && request.refreshToken() != null) {
+            refreshTokenService.revoke(request.refreshToken());
         }
+    }
 
-        // 创建新用户
-        var user = new User();
-        user.setUsername(request.username());
-        user.setPassword(passwordEncoder.encode(request.password()));
-        user.setEmail(request.email());
-
-        // 分配默认角色
-        roleRepository.findByName("ROLE_USER")
-                .ifPresentOrElse(
-                        role -> user.getRoles().add(role),
-                        () -> {
-                            log.error("Default role 'ROLE_USER' not found");
-                            throw new BusinessException(ErrorCode.ROLE_NOT_FOUND);
-                        }
-                );
-
-        var savedUser = userRepository.save(user);
+    /**
+     * 直接插入，由唯一约束判定用户名或邮箱重复：一次写入往返，并发注册也不会产生重复用户。
+     * 密码哈希在事务开始前完成，等待哈希期间不占用数据库连接。
+     */
+    public UserInfo register(RegisterRequest request) {
+        return Observation.createNotStarted("auth.register", observationRegistry)
+                .observe(() -> createUser(request));
+    }
+
+    private UserInfo createUser(RegisterRequest request) {
+        var encodedPassword = passwordHashingExecutor.execute(() -> passwordEncoder.encode(request.password()));
+        // 分配默认角色：从角色目录解析，只持有引用，不查询 roles 表
+        var defaultRole = roleCatalog.getByName(DEFAULT_ROLE);
+
+        var savedUser = transactionTemplate.execute(status -> {
+            var user = new User();
+            user.setUsername(request.username());
+            user.setPassword(encodedPassword);
+            user.setEmail(request.email());
+            user.getRoles().add(roleRepository.getReferenceById(defaultRole.id()));
+
+            try {
+                var saved = userRepository.saveAndFlush(user);
+                // 清除该用户名可能存在的负缓存
+                userDetailsCache.evictAfterCommit(saved.getUsername());
+                return saved;
+            } catch (DataIntegrityViolationException e) {
+                throw toDuplicateUserException(e, request);
+            }
+        });
         log.info("User registered successfully: {}", request.username());
 
-        return UserInfo.fromUser(savedUser);
+        return new UserInfo(savedUser.getId(), savedUser.getUsername(), savedUser.getEmail(),
+                Set.of(defaultRole.name()));
+    }
+
+    /**
+     * 按约束名精确判定是用户名还是邮箱重复；违反其他约束时原样抛出
+     */
+    private static RuntimeException toDuplicateUserException(DataIntegrityViolationException e, RegisterRequest request) {
+        var errorCode = UserUniqueKeys.duplicateErrorOf(e).orElse(null);
+        if (errorCode == null) {
+            return e;
+        }
+        if (errorCode == ErrorCode.EMAIL_ALREADY_EXISTS) {
+            log.warn("Email already exists: {}", request.email());
+        } else {
+            log.warn("Username already exists: {}", request.username());
+        }
+        return new BusinessException(errorCode);
     }
 }
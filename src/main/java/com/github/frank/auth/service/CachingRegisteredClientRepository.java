@@ -0,0 +1,45 @@
+package com.github.frank.auth.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.security.oauth2.server.authorization.client.RegisteredClient;
+import org.springframework.security.oauth2.server.authorization.client.RegisteredClientRepository;
+
+import java.time.Duration;
+
+/**
+ * 带本地缓存的 RegisteredClientRepository。每次令牌请求都要按 client_id 查询客户端，
+ * 缓存后 client_credentials 授权不再访问 oauth2_registered_client 表。
+ * 只缓存存在的客户端，未知 client_id 不占用缓存；其他节点对客户端的修改在 ttl 内可见。
+ *
+ * @author Frank An
+ */
+public class CachingRegisteredClientRepository implements RegisteredClientRepository {
+
+    private final RegisteredClientRepository delegate;
+    private final Cache<String, RegisteredClient> byId;
+    private final Cache<String, RegisteredClient> byClientId;
+
+    public CachingRegisteredClientRepository(RegisteredClientRepository delegate, long maximumSize, Duration ttl) {
+        this.delegate = delegate;
+        this.byId = Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(ttl).build();
+        this.byClientId = Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(ttl).build();
+    }
+
+    @Override
+    public void save(RegisteredClient registeredClient) {
+        delegate.save(registeredClient);
+        byId.invalidate(registeredClient.getId());
+        byClientId.invalidate(registeredClient.getClientId());
+    }
+
+    @Override
+    public RegisteredClient findById(String id) {
+        return byId.get(id, delegate::findById);
+    }
+
+    @Override
+    public RegisteredClient findByClientId(String clientId) {
+        return byClientId.get(clientId, delegate::findByClientId);
+    }
+}
@@ -0,0 +1,45 @@
+package com.github.frank.auth.service;
+
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.server.authorization.OAuth2Authorization;
+import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationService;
+import org.springframework.security.oauth2.server.authorization.OAuth2TokenType;
+
+/**
+ * client_credentials 签发的是自包含 JWT，没有刷新令牌，也没有后续交互需要读取授权记录；
+ * 跳过这类授权的持久化，每次令牌请求省去一次序列化和数据库写入。其他授权类型照常委托给 JDBC 存储。
+ * 代价是 /oauth2/introspect 与 /oauth2/revoke 查不到这些令牌，应改用 JWT 验签和 jti 撤销。
+ *
+ * @author Frank An
+ */
+public class ClientCredentialsFastPathAuthorizationService implements OAuth2AuthorizationService {
+
+    private final OAuth2AuthorizationService delegate;
+
+    public ClientCredentialsFastPathAuthorizationService(OAuth2AuthorizationService delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void save(OAuth2Authorization authorization) {
+        if (AuthorizationGrantType.CLIENT_CREDENTIALS.equals(authorization.getAuthorizationGrantType())) {
+            return;
+        }
+        delegate.save(authorization);
+    }
+
+    @Override
+    public void remove(OAuth2Authorization authorization) {
+        delegate.remove(authorization);
+    }
+
+    @Override
+    public OAuth2Authorization findById(String id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public OAuth2Authorization findByToken(String token, OAuth2TokenType tokenType) {
+        return delegate.findByToken(token, tokenType);
+    }
+}
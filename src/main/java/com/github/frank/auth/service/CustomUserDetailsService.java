@@ -1,52 +1,71 @@
 package com.github.frank.auth.service;
 
+import com.github.frank.auth.dto.AuthUser;
 import com.github.frank.common.exception.BusinessException;
 import com.github.frank.common.exception.ErrorCode;
-import com.github.frank.system.entity.User;
+import com.github.frank.common.metrics.AuthMetrics;
 import com.github.frank.system.repository.UserRepository;
+import com.github.frank.system.service.RoleCatalog;
+import com.github.frank.system.service.UserService;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-
-import java.util.stream.Collectors;
 
 /**
  * @author Frank An
  */
 @Service
 @RequiredArgsConstructor
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
+    private final UserDetailsCache userDetailsCache;
+    private final UserService userService;
+    private final RoleCatalog roleCatalog;
+    private final AuthMetrics authMetrics;
 
+    /**
+     * 不在此处开启事务：缓存命中时无需获取数据库连接，查询本身由 repository 的只读事务包裹
+     */
     @Override
-    @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+        var cached = userDetailsCache.getUserFromCache(username);
+        if (cached != null) {
+            return cached;
+        }
+        if (userDetailsCache.isKnownMissing(username)) {
+            throw new UsernameNotFoundException("User not found: " + username);
+        }
+
+        // 只读取认证所需的列，不加载 User 实体
+        long start = System.nanoTime();
+        var rows = userRepository.findAuthViewByUsername(username);
+        authMetrics.recordUserLoad(start);
+        if (rows.isEmpty()) {
+            userDetailsCache.putMissing(username);
+            throw new UsernameNotFoundException("User not found: " + username);
+        }
 
-        if (!user.isEnabled()) {
+        var authUser = AuthUser.fromAuthView(rows, roleCatalog::authorityOf);
+        if (!authUser.isEnabled()) {
             throw new BusinessException(ErrorCode.INVALID_USER_STATUS);
         }
 
-        var authorities = user.getRoles()
-                .stream()
-                .map(role -> new SimpleGrantedAuthority(role.getName()))
-                .collect(Collectors.toSet());
-
-        return org.springframework.security.core.userdetails.User
-                .builder()
-                .username(user.getUsername())
-                .password(user.getPassword())
-                .authorities(authorities)
-                .accountExpired(false)
-                .accountLocked(false)
-                .credentialsExpired(false)
-                .disabled(!user.isEnabled())
-                .build();
+        userDetailsCache.putUserInCache(authUser);
+        return authUser;
+    }
+
+    /**
+     * 登录成功且旧哈希需要升级时由 DaoAuthenticationProvider 调用：立即更新缓存，数据库异步写入
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        var upgraded = ((AuthUser) user).withPassword(newPassword);
+        userDetailsCache.putUserInCache(upgraded);
+        userService.upgradePasswordHash(upgraded.getUsername(), newPassword);
+        return upgraded;
     }
 }
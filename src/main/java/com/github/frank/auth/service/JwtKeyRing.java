@@ -0,0 +1,394 @@
+package com.github.frank.auth.service;
+
+import com.github.frank.auth.entity.SigningKey;
+import com.github.frank.auth.repository.SigningKeyRepository;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.Locator;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureAlgorithm;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.MessageDigest;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.SecureRandom;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * 访问令牌签名密钥环。
+ * <p>
+ * hmac 模式（默认）沿用 jwt.secret 对称签名，与旧版本完全兼容；
+ * RS256 / ES256 / EdDSA 模式下密钥对保存在 signing_keys 表，令牌头携带 kid，下游服务通过 JWKS 自行验签。
+ * 新密钥先发布、延迟 activation-delay 后才开始签名，保证各节点和下游 JWKS 缓存在此之前已经拿到公钥；
+ * 被替换的密钥在访问令牌有效期内继续用于验签。
+ *
+ * @author Frank An
+ */
+@Slf4j
+@Component
+public class JwtKeyRing {
+
+    public static final String HMAC = "hmac";
+
+    private static final int GCM_IV_BYTES = 12;
+    private static final int GCM_TAG_BITS = 128;
+    // 验签时额外容忍的时钟偏差
+    private static final Duration CLOCK_SKEW = Duration.ofMinutes(1);
+
+    /**
+     * 已解密的非对称密钥
+     */
+    public record RingKey(String kid, SignatureAlgorithm algorithm, PrivateKey privateKey, PublicKey publicKey,
+                          Instant activatesAt) {
+    }
+
+    /**
+     * JWKS 文档及其强 ETag，密钥集合不变时两者都不变
+     */
+    public record JwkSetDocument(Map<String, Object> body, String etag) {
+    }
+
+    private record Snapshot(RingKey active, Map<String, RingKey> byKid, JwkSetDocument jwks) {
+    }
+
+    private final SigningKeyRepository signingKeyRepository;
+    private final SignatureAlgorithm signatureAlgorithm;
+    private final SecretKey hmacKey;
+    private final SecretKey keyEncryptionKey;
+    private final boolean acceptHmac;
+    private final Duration rotationInterval;
+    private final Duration activationDelay;
+    private final Duration verificationGrace;
+    private final SecureRandom secureRandom = new SecureRandom();
+    private final Locator<Key> keyLocator = new KidLocator();
+    private volatile Snapshot snapshot;
+
+    public JwtKeyRing(SigningKeyRepository signingKeyRepository,
+                      @Value("${jwt.secret}") String secret,
+                      @Value("${jwt.signing.algorithm:hmac}") String algorithm,
+                      @Value("${jwt.signing.key-encryption-secret:}") String keyEncryptionSecret,
+                      @Value("${jwt.signing.accept-legacy-hmac:false}") boolean acceptLegacyHmac,
+                      @Value("${jwt.signing.rotation-interval:30d}") Duration rotationInterval,
+                      @Value("${jwt.signing.activation-delay:15m}") Duration activationDelay,
+                      @Value("${jwt.expiration-minutes:30}") long tokenValidityInMinutes) {
+        this.signingKeyRepository = signingKeyRepository;
+        this.hmacKey = Keys.hmacShaKeyFor(secret.getBytes());
+        this.signatureAlgorithm = HMAC.equalsIgnoreCase(algorithm) ? null : resolveAlgorithm(algorithm);
+        // 私钥不能用 jwt.secret 加密：泄露 jwt.secret 的一方本就能伪造 HMAC 令牌，不应同时拿到签名私钥
+        if (signatureAlgorithm != null && (keyEncryptionSecret.isBlank() || keyEncryptionSecret.equals(secret))) {
+            throw new IllegalStateException(
+                    "jwt.signing.key-encryption-secret must be set to a dedicated secret when using " + algorithm);
+        }
+        this.keyEncryptionKey = signatureAlgorithm == null
+                ? null
+                : new SecretKeySpec(sha256("signing-key-encryption:" + keyEncryptionSecret), "AES");
+        // 只在切换到非对称签名的过渡期开启：开启期间任何持有 jwt.secret 的一方都能签发有效令牌
+        this.acceptHmac = signatureAlgorithm == null || acceptLegacyHmac;
+        if (signatureAlgorithm != null && acceptLegacyHmac) {
+            log.warn("jwt.signing.accept-legacy-hmac is enabled, disable it once HMAC tokens issued before the switch "
+                    + "have expired ({} minutes)", tokenValidityInMinutes);
+        }
+        this.rotationInterval = rotationInterval;
+        this.activationDelay = activationDelay;
+        this.verificationGrace = Duration.ofMinutes(tokenValidityInMinutes).plus(CLOCK_SKEW);
+        this.snapshot = new Snapshot(null, Map.of(), toJwkSet(List.of()));
+    }
+
+    /**
+     * 仅使用对称密钥、不访问数据库的密钥环，用于基准测试等非 Spring 环境
+     */
+    public static JwtKeyRing hmac(String secret) {
+        return new JwtKeyRing(null, secret, HMAC, "", true, Duration.ZERO, Duration.ZERO, 30);
+    }
+
+    @PostConstruct
+    public void init() {
+        if (isHmac()) {
+            return;
+        }
+        reload();
+        if (snapshot.active() == null) {
+            // 首次启用非对称签名：没有可用密钥时立即激活一把
+            createKey(Instant.now());
+            reload();
+        }
+        if (snapshot.active() == null) {
+            throw new IllegalStateException("No usable signing key, check jwt.signing.key-encryption-secret");
+        }
+        log.info("Loaded {} signing keys, active kid {}", snapshot.byKid().size(), snapshot.active().kid());
+    }
+
+    public boolean isHmac() {
+        return signatureAlgorithm == null;
+    }
+
+    /**
+     * 用当前激活的密钥签名；非对称模式下在头部写入 kid
+     */
+    public JwtBuilder signWith(JwtBuilder builder) {
+        var active = snapshot.active();
+        if (active == null) {
+            return builder.signWith(hmacKey);
+        }
+        return builder.header().keyId(active.kid()).and()
+                .signWith(active.privateKey(), active.algorithm());
+    }
+
+    /**
+     * 按 kid 选择验签密钥的 Locator，供 JwtParser 使用
+     */
+    public Locator<Key> keyLocator() {
+        return keyLocator;
+    }
+
+    /**
+     * 当前用于签名的密钥；hmac 模式下为 null
+     */
+    public RingKey activeKey() {
+        return snapshot.active();
+    }
+
+    /**
+     * 当前可用于验签的全部密钥，包括已发布待激活和宽限期内的旧密钥
+     */
+    public Collection<RingKey> keys() {
+        return snapshot.byKid().values();
+    }
+
+    public SecretKey hmacKey() {
+        return hmacKey;
+    }
+
+    public JwkSetDocument jwkSet() {
+        return snapshot.jwks();
+    }
+
+    /**
+     * 定时从数据库重新加载密钥，获取其他节点轮换出的新密钥
+     */
+    @Scheduled(fixedDelayString = "${jwt.signing.reload-interval:PT1M}")
+    public void reload() {
+        if (isHmac()) {
+            return;
+        }
+        var now = Instant.now();
+        var previous = snapshot.byKid();
+        var rows = signingKeyRepository.findAllByOrderByActivatesAtAsc();
+
+        RingKey active = null;
+        var byKid = new HashMap<String, RingKey>();
+        for (int i = 0; i < rows.size(); i++) {
+            var row = rows.get(i);
+            if (isRetired(rows, i, now)) {
+                continue;
+            }
+            // 已加载过的密钥直接复用，避免每次重新解密
+            var key = previous.get(row.getKid());
+            if (key == null) {
+                key = decode(row);
+            }
+            if (key == null) {
+                continue;
+            }
+            byKid.put(key.kid(), key);
+            if (!key.activatesAt().isAfter(now)) {
+                active = key;
+            }
+        }
+        if (active == null) {
+            if (!rows.isEmpty()) {
+                log.error("No active signing key available, keeping the previous key ring");
+            }
+            return;
+        }
+        snapshot = new Snapshot(active, Map.copyOf(byKid), toJwkSet(rows.stream()
+                .map(row -> byKid.get(row.getKid()))
+                .filter(Objects::nonNull)
+                .toList()));
+    }
+
+    /**
+     * 最新密钥到期前预先生成下一把密钥，并删除已过验签宽限期的旧密钥
+     */
+    @Scheduled(fixedDelayString = "${jwt.signing.rotation-check-interval:PT10M}")
+    @Transactional
+    public void rotateIfDue() {
+        if (isHmac()) {
+            return;
+        }
+        var now = Instant.now();
+        var rows = signingKeyRepository.findAllByOrderByActivatesAtAsc();
+        var newest = rows.isEmpty() ? null : rows.get(rows.size() - 1);
+        // 多个节点同时轮换只会多出一把待激活密钥，不影响正确性
+        if (newest == null || !newest.getActivatesAt().plus(rotationInterval).minus(activationDelay).isAfter(now)) {
+            var kid = createKey(now.plus(activationDelay));
+            log.info("Generated signing key {}, activates in {}", kid, activationDelay);
+        }
+
+        var retired = new ArrayList<String>();
+        for (int i = 0; i < rows.size(); i++) {
+            if (isRetired(rows, i, now)) {
+                retired.add(rows.get(i).getKid());
+            }
+        }
+        if (!retired.isEmpty()) {
+            signingKeyRepository.deleteByKids(retired);
+            log.info("Deleted retired signing keys {}", retired);
+        }
+        reload();
+    }
+
+    /**
+     * 后一把密钥激活后，本密钥不再签名；再经过一个访问令牌有效期，用它签发的令牌全部过期
+     */
+    private boolean isRetired(List<SigningKey> rows, int index, Instant now) {
+        if (index + 1 >= rows.size()) {
+            return false;
+        }
+        var supersededAt = rows.get(index + 1).getActivatesAt();
+        return !supersededAt.isAfter(now) && !supersededAt.plus(verificationGrace).isAfter(now);
+    }
+
+    private String createKey(Instant activatesAt) {
+        KeyPair keyPair = signatureAlgorithm == Jwts.SIG.EdDSA
+                ? Jwks.CRV.Ed25519.keyPair().build()
+                : signatureAlgorithm.keyPair().build();
+
+        var row = new SigningKey();
+        row.setKid(UUID.randomUUID().toString());
+        row.setAlgorithm(signatureAlgorithm.getId());
+        row.setPublicKey(Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded()));
+        row.setPrivateKey(Base64.getEncoder().encodeToString(encrypt(keyPair.getPrivate().getEncoded())));
+        row.setActivatesAt(activatesAt);
+        signingKeyRepository.save(row);
+        return row.getKid();
+    }
+
+    private RingKey decode(SigningKey row) {
+        try {
+            var algorithm = resolveAlgorithm(row.getAlgorithm());
+            var keyFactory = KeyFactory.getInstance(keyFamily(row.getAlgorithm()));
+            var publicKey = keyFactory.generatePublic(
+                    new X509EncodedKeySpec(Base64.getDecoder().decode(row.getPublicKey())));
+            var privateKey = keyFactory.generatePrivate(
+                    new PKCS8EncodedKeySpec(decrypt(Base64.getDecoder().decode(row.getPrivateKey()))));
+            return new RingKey(row.getKid(), algorithm, privateKey, publicKey, row.getActivatesAt());
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            // 通常是 key-encryption-secret 被修改
+            log.error("Failed to load signing key {}: {}", row.getKid(), e.getMessage());
+            return null;
+        }
+    }
+
+    private static JwkSetDocument toJwkSet(List<RingKey> keys) {
+        var jwks = new ArrayList<Map<String, ?>>(keys.size());
+        var digest = new StringBuilder();
+        for (var key : keys) {
+            jwks.add(Jwks.builder()
+                    .key(key.publicKey())
+                    .id(key.kid())
+                    .algorithm(key.algorithm().getId())
+                    .publicKeyUse("sig")
+                    .build());
+            digest.append(key.kid()).append(':').append(key.algorithm().getId()).append(':')
+                    .append(Base64.getEncoder().encodeToString(key.publicKey().getEncoded())).append('\n');
+        }
+        var etag = "\"" + HexFormat.of().formatHex(sha256(digest.toString()), 0, 16) + "\"";
+        return new JwkSetDocument(Map.<String, Object>of("keys", List.copyOf(jwks)), etag);
+    }
+
+    private byte[] encrypt(byte[] plaintext) {
+        try {
+            var iv = new byte[GCM_IV_BYTES];
+            secureRandom.nextBytes(iv);
+            var cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            cipher.init(Cipher.ENCRYPT_MODE, keyEncryptionKey, new GCMParameterSpec(GCM_TAG_BITS, iv));
+            var ciphertext = cipher.doFinal(plaintext);
+            return ByteBuffer.allocate(iv.length + ciphertext.length).put(iv).put(ciphertext).array();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to encrypt signing key", e);
+        }
+    }
+
+    private byte[] decrypt(byte[] encrypted) throws GeneralSecurityException {
+        var cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.DECRYPT_MODE, keyEncryptionKey, new GCMParameterSpec(GCM_TAG_BITS, encrypted, 0, GCM_IV_BYTES));
+        return cipher.doFinal(encrypted, GCM_IV_BYTES, encrypted.length - GCM_IV_BYTES);
+    }
+
+    private static SignatureAlgorithm resolveAlgorithm(String id) {
+        if (!(Jwts.SIG.get().get(id) instanceof SignatureAlgorithm algorithm)) {
+            throw new IllegalArgumentException("Unsupported jwt.signing.algorithm: " + id);
+        }
+        return algorithm;
+    }
+
+    private static String keyFamily(String algorithm) {
+        if (algorithm.startsWith("RS") || algorithm.startsWith("PS")) {
+            return "RSA";
+        }
+        if (algorithm.startsWith("ES")) {
+            return "EC";
+        }
+        return "EdDSA";
+    }
+
+    private static byte[] sha256(String value) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private final class KidLocator extends LocatorAdapter<Key> {
+        @Override
+        protected Key locate(JwsHeader header) {
+            var kid = header.getKeyId();
+            if (kid == null) {
+                // 无 kid 的令牌只能是 HMAC 签名；算法与密钥类型是否匹配由 parser 校验
+                if (acceptHmac) {
+                    return hmacKey;
+                }
+                throw new UnsupportedJwtException("Token has no key id");
+            }
+            var key = snapshot.byKid().get(kid);
+            if (key == null) {
+                throw new UnsupportedJwtException("Unknown signing key");
+            }
+            return key.publicKey();
+        }
+    }
+}
@@ -1,19 +1,15 @@
 package com.github.frank.auth.service;
 
-import com.github.frank.common.exception.BusinessException;
-import com.github.frank.common.exception.ErrorCode;
-import com.github.frank.system.entity.Role;
-import com.github.frank.system.entity.User;
+import com.github.frank.auth.dto.AuthUser;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import javax.crypto.SecretKey;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
@@ -24,69 +20,128 @@ import java.util.*;
 @Slf4j
 @Service
 public class JwtService {
-    private final SecretKey key;
+    static final String AUTHORITIES_CLAIM = "roles";
+    static final String USER_ID_CLAIM = "uid";
+    static final String ACCOUNT_VERSION_CLAIM = "ver";
+    // 授权服务器用同一个密钥环签发 client_credentials 令牌（sub 为 client_id），只有带此声明的令牌代表用户
+    static final String TOKEN_TYPE_CLAIM = "token_type";
+    static final String USER_TOKEN_TYPE = "user";
+
+    private final JwtKeyRing keyRing;
     private final long tokenValidityInMinutes;
+    // JwtParser 是不可变且线程安全的，启动时构建一次，所有请求复用
+    private final JwtParser parser;
+    // 可选的已验签令牌缓存，默认关闭
+    private final VerifiedTokenCache verifiedTokenCache;
 
-    public record JwtTokenInfo(String username, Instant expiration) {
+    /**
+     * 一次验签得到的用户令牌视图，userId 一定存在
+     */
+    public record JwtTokenInfo(String username, Instant expiration, String tokenId, Set<String> authorities,
+                               Long userId, long accountVersion) {
     }
 
     public JwtService(
-            @Value("${jwt.secret}") String secret,
-            @Value("${jwt.expiration-minutes:30}") long tokenValidityInMinutes
+            JwtKeyRing keyRing,
+            @Value("${jwt.expiration-minutes:30}") long tokenValidityInMinutes,
+            @Value("${jwt.verified-token-cache.enabled:false}") boolean verifiedTokenCacheEnabled,
+            @Value("${jwt.verified-token-cache.max-entries:65536}") int verifiedTokenCacheMaxEntries
     ) {
-        this.key = Keys.hmacShaKeyFor(secret.getBytes());
+        this.keyRing = keyRing;
         this.tokenValidityInMinutes = tokenValidityInMinutes;
+        // 按令牌头的 kid 从密钥环选择验签密钥
+        this.parser = Jwts.parser()
+                .keyLocator(keyRing.keyLocator())
+                .build();
+        this.verifiedTokenCache = verifiedTokenCacheEnabled
+                ? new VerifiedTokenCache(verifiedTokenCacheMaxEntries)
+                : null;
     }
 
-    public String generateToken(User user) {
+    public String generateToken(AuthUser user) {
         var now = Instant.now();
         var expiration = now.plus(tokenValidityInMinutes, ChronoUnit.MINUTES);
-        return Jwts.builder()
+        return keyRing.signWith(Jwts.builder()
+                .id(UUID.randomUUID().toString())
+                .claim(TOKEN_TYPE_CLAIM, USER_TOKEN_TYPE)
                 .subject(user.getUsername())
+                .claim(USER_ID_CLAIM, user.getId())
+                .claim(AUTHORITIES_CLAIM, user.roleNames())
+                .claim(ACCOUNT_VERSION_CLAIM, user.getAccountVersion())
                 .issuedAt(Date.from(now))
-                .expiration(Date.from(expiration))
-                .signWith(key)
+                .expiration(Date.from(expiration)))
                 .compact();
     }
 
-    public JwtTokenInfo parseToken(String token) {
-        try {
-            Claims claims = Jwts.parser()
-                    .verifyWith(key)
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
+    /**
+     * 验签并提取声明，只做一次签名校验。令牌无效、已过期或不是用户令牌时返回 empty，不抛异常。
+     */
+    public Optional<JwtTokenInfo> verify(String token) {
+        if (verifiedTokenCache == null) {
+            return verifySignature(token);
+        }
+        long now = System.currentTimeMillis();
+        var cached = verifiedTokenCache.get(token, now);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        var verified = verifySignature(token);
+        verified.ifPresent(tokenInfo -> verifiedTokenCache.put(token, tokenInfo, now));
+        return verified;
+    }
 
-            return new JwtTokenInfo(
-                    claims.getSubject(),
-                    claims.getExpiration().toInstant());
+    /**
+     * 令牌被撤销时调用，清除已验签缓存中该 jti 的条目
+     */
+    public void evictVerified(String tokenId) {
+        if (verifiedTokenCache != null && tokenId != null) {
+            verifiedTokenCache.purgeTokenId(tokenId);
+        }
+    }
 
+    private Optional<JwtTokenInfo> verifySignature(String token) {
+        try {
+            var claims = parser.parseSignedClaims(token).getPayload();
+            if (!isUserToken(claims)) {
+                log.debug("Rejected non-user JWT with subject {}", claims.getSubject());
+                return Optional.empty();
+            }
+            return Optional.of(toTokenInfo(claims));
         } catch (ExpiredJwtException e) {
-            log.warn("JWT token has expired: {}", e.getMessage());
-            throw new BusinessException(ErrorCode.TOKEN_EXPIRED);
-        } catch (JwtException e) {
-            log.error("JWT token is invalid: {}", e.getMessage());
-            throw new BusinessException(ErrorCode.INVALID_TOKEN);
+            log.debug("JWT token has expired: {}", e.getMessage());
+            return Optional.empty();
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Invalid JWT token: {}", e.getMessage());
+            return Optional.empty();
         }
     }
 
-    public boolean validateToken(String token) {
-        try {
-            var claims = Jwts.parser()
-                    .verifyWith(key)
-                    .build()
-                    .parseSignedClaims(token);
+    /**
+     * 用户令牌必须同时带有 token_type=user 和 uid；其他令牌（客户端令牌、缺少声明的旧令牌）一律不按用户处理，
+     * 绝不能退回到按 sub 查找用户，否则 client_id 与用户名相同的客户端会被认证为该用户
+     */
+    private static boolean isUserToken(Claims claims) {
+        return USER_TOKEN_TYPE.equals(claims.get(TOKEN_TYPE_CLAIM)) && claims.get(USER_ID_CLAIM) != null;
+    }
 
-            // 检查是否过期
-            if (claims.getPayload().getExpiration().toInstant().isBefore(Instant.now())) {
-                log.warn("JWT token has expired");
-                return false;
-            }
+    private JwtTokenInfo toTokenInfo(Claims claims) {
+        return new JwtTokenInfo(
+                claims.getSubject(),
+                claims.getExpiration().toInstant(),
+                claims.getId(),
+                readAuthorities(claims),
+                claims.get(USER_ID_CLAIM, Long.class),
+                Optional.ofNullable(claims.get(ACCOUNT_VERSION_CLAIM, Long.class)).orElse(0L));
+    }
 
-            return true;
-        } catch (JwtException | IllegalArgumentException e) {
-            log.warn("Invalid JWT token: {}", e.getMessage());
-            return false;
+    private static Set<String> readAuthorities(Claims claims) {
+        if (!(claims.get(AUTHORITIES_CLAIM) instanceof Collection<?> values)) {
+            return Set.of();
+        }
+        var authorities = new HashSet<String>(values.size());
+        for (Object value : values) {
+            authorities.add(String.valueOf(value));
         }
+        return Collections.unmodifiableSet(authorities);
     }
 }
@@ -0,0 +1,90 @@
+package com.github.frank.auth.service;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.OctetSequenceKey;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import lombok.extern.slf4j.Slf4j;
+
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 将 JwtKeyRing 适配为授权服务器使用的 JWKSource，使 /oauth2/token 与 /api/v1/auth/login 签发的令牌使用同一套密钥。
+ * 转换结果按密钥环快照缓存，密钥环重新加载后才重建。
+ * Nimbus 的 Ed25519 签名依赖 Tink，未引入，因此授权服务器只支持 hmac、RSA 与 EC 密钥：
+ * EdDSA 模式下 OKP 密钥不出现在本 JWKSource 中，/oauth2/token 拒绝签发令牌，用户登录和 JWKS 端点不受影响。
+ *
+ * @author Frank An
+ */
+@Slf4j
+public class KeyRingJwkSource implements JWKSource<SecurityContext> {
+
+    private record Converted(JwtKeyRing.JwkSetDocument source, JWKSet jwkSet) {
+    }
+
+    private final JwtKeyRing keyRing;
+    private volatile Converted converted;
+
+    public KeyRingJwkSource(JwtKeyRing keyRing) {
+        var active = keyRing.activeKey();
+        if (active != null && !isSupported(active)) {
+            log.warn("Authorization server cannot sign with {}, /oauth2/token is disabled; "
+                    + "use RS256 or ES256 to issue client tokens", active.algorithm().getId());
+        }
+        this.keyRing = keyRing;
+    }
+
+    @Override
+    public List<JWK> get(JWKSelector jwkSelector, SecurityContext context) {
+        var document = keyRing.jwkSet();
+        var current = converted;
+        if (current == null || current.source() != document) {
+            current = new Converted(document, toJwkSet());
+            converted = current;
+        }
+        return jwkSelector.select(current.jwkSet());
+    }
+
+    private JWKSet toJwkSet() {
+        if (keyRing.isHmac()) {
+            return new JWKSet(new OctetSequenceKey.Builder(keyRing.hmacKey()).build());
+        }
+        var jwks = new ArrayList<JWK>();
+        for (var key : keyRing.keys()) {
+            var algorithm = JWSAlgorithm.parse(key.algorithm().getId());
+            if (key.publicKey() instanceof RSAPublicKey rsa) {
+                jwks.add(new RSAKey.Builder(rsa)
+                        .privateKey(key.privateKey())
+                        .keyID(key.kid())
+                        .algorithm(algorithm)
+                        .keyUse(KeyUse.SIGNATURE)
+                        .build());
+            } else if (key.publicKey() instanceof ECPublicKey ec) {
+                jwks.add(new ECKey.Builder(Curve.forECParameterSpec(ec.getParams()), ec)
+                        .privateKey(key.privateKey())
+                        .keyID(key.kid())
+                        .algorithm(algorithm)
+                        .keyUse(KeyUse.SIGNATURE)
+                        .build());
+            }
+        }
+        return new JWKSet(jwks);
+    }
+
+    /**
+     * 授权服务器能否用该密钥签名：只支持 RSA 与 EC 密钥
+     */
+    public static boolean isSupported(JwtKeyRing.RingKey key) {
+        return key.publicKey() instanceof RSAPublicKey || key.publicKey() instanceof ECPublicKey;
+    }
+}
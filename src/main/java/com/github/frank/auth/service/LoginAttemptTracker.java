@@ -0,0 +1,164 @@
+package com.github.frank.auth.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.frank.common.exception.BusinessException;
+import com.github.frank.common.exception.ErrorCode;
+import com.github.frank.system.service.UserService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+
+/**
+ * 按账号统计登录失败并渐进锁定。失败计数只保存在有界的内存缓存中；窗口内失败达到阈值时锁定，
+ * 每次再被锁定时长翻倍（不超过上限）。只有加锁和解锁才写 users.locked_until，
+ * 暴力破解期间的大量失败不会变成对 users 表的大量 UPDATE。
+ *
+ * @author Frank An
+ */
+@Slf4j
+@Component
+public class LoginAttemptTracker {
+
+    /**
+     * failures：当前窗口内的失败次数；lockCount：连续被锁定的次数，用于计算下次锁定时长
+     */
+    private record Attempts(int failures, Instant windowStart, int lockCount, Instant lockedUntil) {
+
+        boolean isLocked(Instant now) {
+            return lockedUntil != null && lockedUntil.isAfter(now);
+        }
+    }
+
+    private final UserService userService;
+    private final UserDetailsCache userDetailsCache;
+    private final boolean enabled;
+    private final int maxFailures;
+    private final Duration failureWindow;
+    private final Duration baseLockDuration;
+    private final Duration maxLockDuration;
+    private final Cache<String, Attempts> attempts;
+    private final Clock clock;
+
+    @Autowired
+    public LoginAttemptTracker(UserService userService,
+                               UserDetailsCache userDetailsCache,
+                               @Value("${auth.login-lockout.enabled:true}") boolean enabled,
+                               @Value("${auth.login-lockout.max-failures:5}") int maxFailures,
+                               @Value("${auth.login-lockout.failure-window:15m}") Duration failureWindow,
+                               @Value("${auth.login-lockout.base-lock-duration:1m}") Duration baseLockDuration,
+                               @Value("${auth.login-lockout.max-lock-duration:1h}") Duration maxLockDuration,
+                               @Value("${auth.login-lockout.reset-after:24h}") Duration resetAfter,
+                               @Value("${auth.login-lockout.maximum-size:100000}") long maximumSize) {
+        this(userService, userDetailsCache, enabled, maxFailures, failureWindow, baseLockDuration, maxLockDuration,
+                resetAfter, maximumSize, Clock.systemUTC());
+    }
+
+    /**
+     * clock 只决定窗口与锁定时间；resetAfter 的过期仍由缓存自身计时
+     */
+    LoginAttemptTracker(UserService userService,
+                        UserDetailsCache userDetailsCache,
+                        boolean enabled,
+                        int maxFailures,
+                        Duration failureWindow,
+                        Duration baseLockDuration,
+                        Duration maxLockDuration,
+                        Duration resetAfter,
+                        long maximumSize,
+                        Clock clock) {
+        this.userService = userService;
+        this.userDetailsCache = userDetailsCache;
+        this.enabled = enabled;
+        this.maxFailures = maxFailures;
+        this.failureWindow = failureWindow;
+        this.baseLockDuration = baseLockDuration;
+        this.maxLockDuration = maxLockDuration;
+        this.clock = clock;
+        // 超过 resetAfter 没有再失败，锁定次数清零
+        this.attempts = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(resetAfter)
+                .build();
+    }
+
+    /**
+     * 在任何密码哈希之前调用，账号处于锁定期时直接拒绝
+     */
+    public void checkNotLocked(String username) {
+        if (!enabled) {
+            return;
+        }
+        var current = attempts.getIfPresent(key(username));
+        var now = clock.instant();
+        if (current != null && current.isLocked(now)) {
+            throw locked(current.lockedUntil(), now);
+        }
+    }
+
+    /**
+     * 记录一次失败，本次失败触发锁定时写库
+     */
+    public void recordFailure(String username) {
+        if (!enabled) {
+            return;
+        }
+        var now = clock.instant();
+        var lockedNow = new boolean[1];
+        var updated = attempts.asMap().compute(key(username), (key, current) -> {
+            if (current == null) {
+                current = new Attempts(0, now, 0, null);
+            }
+            if (current.isLocked(now)) {
+                return current;
+            }
+            boolean windowExpired = current.windowStart().plus(failureWindow).isBefore(now);
+            int failures = windowExpired ? 1 : current.failures() + 1;
+            if (failures < maxFailures) {
+                return new Attempts(failures, windowExpired ? now : current.windowStart(), current.lockCount(), null);
+            }
+            lockedNow[0] = true;
+            return new Attempts(0, now, current.lockCount() + 1, now.plus(lockDuration(current.lockCount())));
+        });
+
+        if (lockedNow[0]) {
+            log.warn("User {} locked until {} after repeated login failures", username, updated.lockedUntil());
+            userService.updateLockedUntil(username, updated.lockedUntil());
+            userDetailsCache.removeUserFromCache(username);
+        }
+    }
+
+    /**
+     * 登录成功后清除失败计数；persistedLock 为数据库中残留的（已过期）锁定时间，存在时一并清除
+     */
+    public void recordSuccess(String username, Instant persistedLock) {
+        if (!enabled) {
+            return;
+        }
+        attempts.invalidate(key(username));
+        if (persistedLock != null) {
+            userService.updateLockedUntil(username, null);
+            userDetailsCache.removeUserFromCache(username);
+        }
+    }
+
+    private Duration lockDuration(int previousLocks) {
+        var duration = baseLockDuration.multipliedBy(1L << Math.min(previousLocks, 20));
+        return duration.compareTo(maxLockDuration) > 0 ? maxLockDuration : duration;
+    }
+
+    private static BusinessException locked(Instant lockedUntil, Instant now) {
+        long seconds = Math.max(1, Duration.between(now, lockedUntil).toSeconds());
+        return new BusinessException(ErrorCode.ACCOUNT_LOCKED, seconds);
+    }
+
+    private static String key(String username) {
+        return username.toLowerCase(Locale.ROOT);
+    }
+}
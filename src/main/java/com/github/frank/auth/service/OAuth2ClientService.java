@@ -0,0 +1,84 @@
+package com.github.frank.auth.service;
+
+import com.github.frank.auth.dto.ClientRegistrationRequest;
+import com.github.frank.auth.dto.ClientRegistrationResponse;
+import com.github.frank.common.exception.BusinessException;
+import com.github.frank.common.exception.ErrorCode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.ClientAuthenticationMethod;
+import org.springframework.security.oauth2.server.authorization.client.RegisteredClient;
+import org.springframework.security.oauth2.server.authorization.client.RegisteredClientRepository;
+import org.springframework.security.oauth2.server.authorization.settings.OAuth2TokenFormat;
+import org.springframework.security.oauth2.server.authorization.settings.TokenSettings;
+import org.springframework.stereotype.Service;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * 注册 client_credentials 机器客户端
+ *
+ * @author Frank An
+ */
+@Slf4j
+@Service
+public class OAuth2ClientService {
+
+    private static final int SECRET_BYTES = 32;
+
+    private final RegisteredClientRepository registeredClientRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final Duration accessTokenValidity;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    public OAuth2ClientService(RegisteredClientRepository registeredClientRepository,
+                               PasswordEncoder passwordEncoder,
+                               PasswordHashingExecutor passwordHashingExecutor,
+                               @Value("${jwt.expiration-minutes:30}") long tokenValidityInMinutes) {
+        this.registeredClientRepository = registeredClientRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.passwordHashingExecutor = passwordHashingExecutor;
+        this.accessTokenValidity = Duration.ofMinutes(tokenValidityInMinutes);
+    }
+
+    public ClientRegistrationResponse register(ClientRegistrationRequest request) {
+        if (registeredClientRepository.findByClientId(request.clientId()) != null) {
+            throw new BusinessException(ErrorCode.CLIENT_ALREADY_EXISTS);
+        }
+
+        var bytes = new byte[SECRET_BYTES];
+        secureRandom.nextBytes(bytes);
+        var secret = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        var encodedSecret = passwordHashingExecutor.execute(() -> passwordEncoder.encode(secret));
+
+        var client = RegisteredClient.withId(UUID.randomUUID().toString())
+                .clientId(request.clientId())
+                .clientName(request.clientName())
+                .clientSecret(encodedSecret)
+                .clientAuthenticationMethod(ClientAuthenticationMethod.CLIENT_SECRET_BASIC)
+                .clientAuthenticationMethod(ClientAuthenticationMethod.CLIENT_SECRET_POST)
+                .authorizationGrantType(AuthorizationGrantType.CLIENT_CREDENTIALS)
+                .scopes(scopes -> scopes.addAll(request.scopes()))
+                .tokenSettings(TokenSettings.builder()
+                        .accessTokenFormat(OAuth2TokenFormat.SELF_CONTAINED)
+                        .accessTokenTimeToLive(accessTokenValidity)
+                        .build())
+                .build();
+        try {
+            registeredClientRepository.save(client);
+        } catch (DuplicateKeyException | IllegalArgumentException e) {
+            // 并发注册同一 client_id：唯一约束或仓库自身的唯一性检查
+            throw new BusinessException(ErrorCode.CLIENT_ALREADY_EXISTS);
+        }
+        log.info("OAuth2 client registered: {}", request.clientId());
+        return new ClientRegistrationResponse(client.getClientId(), secret, Set.copyOf(request.scopes()));
+    }
+}
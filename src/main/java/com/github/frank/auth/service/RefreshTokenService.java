@@ -0,0 +1,165 @@
+package com.github.frank.auth.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.frank.auth.dto.AuthUser;
+import com.github.frank.auth.entity.RefreshToken;
+import com.github.frank.auth.repository.RefreshTokenRepository;
+import com.github.frank.common.exception.BusinessException;
+import com.github.frank.common.exception.ErrorCode;
+import com.github.frank.system.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * 不透明刷新令牌：库中只保存 SHA-256 摘要，每次使用即轮换；已轮换的令牌再次出现视为泄露，撤销整个 family。
+ * 内存索引缓存 摘要 -> 令牌元数据，热路径无需按摘要查库，轮换本身仍由数据库条件更新保证原子性。
+ *
+ * @author Frank An
+ */
+@Slf4j
+@Service
+public class RefreshTokenService {
+
+    public record IssuedRefreshToken(String value, String familyId, Instant expiresAt) {
+    }
+
+    public record Rotation(AuthUser user, IssuedRefreshToken refreshToken) {
+    }
+
+    private record IndexEntry(Long id, String familyId, Long userId, String username, Instant expiresAt) {
+    }
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+    private final CustomUserDetailsService userDetailsService;
+    private final Duration validity;
+    private final SecureRandom secureRandom = new SecureRandom();
+    private final Cache<String, IndexEntry> index;
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               UserRepository userRepository,
+                               CustomUserDetailsService userDetailsService,
+                               @Value("${jwt.refresh-token.validity:14d}") Duration validity,
+                               @Value("${jwt.refresh-token.index-size:100000}") long indexSize) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.userRepository = userRepository;
+        this.userDetailsService = userDetailsService;
+        this.validity = validity;
+        this.index = Caffeine.newBuilder()
+                .maximumSize(indexSize)
+                .expireAfterWrite(validity)
+                .build();
+    }
+
+    /**
+     * 登录成功后签发新 family 的第一个刷新令牌
+     */
+    @Transactional
+    public IssuedRefreshToken issue(AuthUser user) {
+        return issue(user.getId(), user.getUsername(), UUID.randomUUID().toString());
+    }
+
+    /**
+     * 用刷新令牌换取新的令牌对，不涉及密码哈希。检测到重放时撤销整个 family 并提交，再抛出异常。
+     */
+    @Transactional(noRollbackFor = BusinessException.class)
+    public Rotation rotate(String refreshToken) {
+        var tokenHash = hash(refreshToken);
+        var entry = index.getIfPresent(tokenHash);
+        if (entry == null) {
+            entry = loadEntry(tokenHash);
+        }
+
+        var now = Instant.now();
+        if (!entry.expiresAt().isAfter(now)) {
+            index.invalidate(tokenHash);
+            throw new BusinessException(ErrorCode.INVALID_REFRESH_TOKEN);
+        }
+
+        // 条件更新失败说明令牌已被使用或 family 已撤销：按重放处理
+        if (refreshTokenRepository.markUsed(entry.id(), now) == 0) {
+            revokeFamily(entry.familyId());
+            log.warn("Refresh token reuse detected for user {}, family {} revoked", entry.username(), entry.familyId());
+            throw new BusinessException(ErrorCode.REFRESH_TOKEN_REUSED);
+        }
+        index.invalidate(tokenHash);
+
+        var user = (AuthUser) userDetailsService.loadUserByUsername(entry.username());
+        return new Rotation(user, issue(entry.userId(), entry.username(), entry.familyId()));
+    }
+
+    @Transactional
+    public void revokeFamily(String familyId) {
+        refreshTokenRepository.revokeFamily(familyId);
+        index.asMap().values().removeIf(entry -> entry.familyId().equals(familyId));
+    }
+
+    /**
+     * 注销时撤销刷新令牌所在的 family；令牌不存在时静默忽略
+     */
+    @Transactional
+    public void revoke(String refreshToken) {
+        refreshTokenRepository.findByTokenHash(hash(refreshToken))
+                .ifPresent(token -> revokeFamily(token.getFamilyId()));
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.refresh-token.cleanup-interval:PT1H}")
+    @Transactional
+    public void deleteExpired() {
+        int deleted = refreshTokenRepository.deleteExpired(Instant.now());
+        if (deleted > 0) {
+            log.info("Deleted {} expired refresh tokens", deleted);
+        }
+    }
+
+    private IssuedRefreshToken issue(Long userId, String username, String familyId) {
+        var bytes = new byte[TOKEN_BYTES];
+        secureRandom.nextBytes(bytes);
+        var value = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        var expiresAt = Instant.now().plus(validity);
+
+        var token = new RefreshToken();
+        token.setTokenHash(hash(value));
+        token.setFamilyId(familyId);
+        token.setUserId(userId);
+        token.setExpiresAt(expiresAt);
+        var saved = refreshTokenRepository.save(token);
+
+        index.put(saved.getTokenHash(), new IndexEntry(saved.getId(), familyId, userId, username, expiresAt));
+        return new IssuedRefreshToken(value, familyId, expiresAt);
+    }
+
+    private IndexEntry loadEntry(String tokenHash) {
+        var token = refreshTokenRepository.findByTokenHash(tokenHash)
+                .orElseThrow(() -> new BusinessException(ErrorCode.INVALID_REFRESH_TOKEN));
+        var username = userRepository.findProfileById(token.getUserId())
+                .orElseThrow(() -> new BusinessException(ErrorCode.INVALID_REFRESH_TOKEN))
+                .username();
+        return new IndexEntry(token.getId(), token.getFamilyId(), token.getUserId(), username, token.getExpiresAt());
+    }
+
+    private static String hash(String refreshToken) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256").digest(refreshToken.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
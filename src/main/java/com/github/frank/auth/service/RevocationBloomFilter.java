@@ -0,0 +1,70 @@
+package com.github.frank.auth.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 撤销列表前置的布隆过滤器。查询只做 k 次位读取，不分配对象；返回 false 时 jti 一定未被撤销。
+ * 不支持删除，过期条目清理后由调用方重建。
+ *
+ * @author Frank An
+ */
+final class RevocationBloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long mask;
+    private final int hashFunctions;
+
+    /**
+     * @param expectedInsertions 预计的撤销数量
+     * @param falsePositiveRate  目标误判率，例如 0.01
+     */
+    RevocationBloomFilter(int expectedInsertions, double falsePositiveRate) {
+        long optimalBits = (long) Math.ceil(-Math.max(1, expectedInsertions) * Math.log(falsePositiveRate)
+                / (Math.log(2) * Math.log(2)));
+        // 位数取 2 的幂，下标用掩码计算
+        long numBits = Math.max(64, Long.highestOneBit(optimalBits - 1) << 1);
+        this.bits = new AtomicLongArray((int) (numBits >>> 6));
+        this.mask = numBits - 1;
+        this.hashFunctions = Math.max(1, (int) Math.round((double) numBits / Math.max(1, expectedInsertions) * Math.log(2)));
+    }
+
+    void put(String value) {
+        long hash1 = hash(value, 0x9e3779b97f4a7c15L);
+        long hash2 = hash(value, 0xc2b2ae3d27d4eb4fL) | 1;
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = (hash1 + i * hash2) & mask;
+            int word = (int) (bit >>> 6);
+            long bitMask = 1L << bit;
+            long current;
+            do {
+                current = bits.get(word);
+                if ((current & bitMask) != 0) {
+                    break;
+                }
+            } while (!bits.compareAndSet(word, current, current | bitMask));
+        }
+    }
+
+    boolean mightContain(String value) {
+        long hash1 = hash(value, 0x9e3779b97f4a7c15L);
+        long hash2 = hash(value, 0xc2b2ae3d27d4eb4fL) | 1;
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = (hash1 + i * hash2) & mask;
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long hash(String value, long seed) {
+        long hash = seed;
+        for (int i = 0, length = value.length(); i < length; i++) {
+            hash = (hash ^ value.charAt(i)) * 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,71 @@
+package com.github.frank.auth.service;
+
+import com.github.frank.auth.dto.IntrospectionResponse;
+import com.github.frank.common.exception.BusinessException;
+import com.github.frank.common.exception.ErrorCode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 供网关使用的令牌内省。验签经 {@link JwtService#verify(String)}，与请求过滤器共用同一个已验签令牌缓存
+ * （jwt.verified-token-cache.*）及其注销清除路径；撤销检查和账号版本检查不缓存，令牌注销或账号变更后立即变为 inactive。
+ *
+ * @author Frank An
+ */
+@Service
+public class TokenIntrospectionService {
+
+    private final JwtService jwtService;
+    private final TokenRevocationService revocationService;
+    private final AccountVersionCache accountVersions;
+    private final int maxBatchSize;
+
+    public TokenIntrospectionService(JwtService jwtService,
+                                     TokenRevocationService revocationService,
+                                     AccountVersionCache accountVersions,
+                                     @Value("${jwt.introspection.max-batch-size:100}") int maxBatchSize) {
+        this.jwtService = jwtService;
+        this.revocationService = revocationService;
+        this.accountVersions = accountVersions;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public IntrospectionResponse introspect(String token) {
+        if (token == null || token.isBlank()) {
+            return IntrospectionResponse.INACTIVE;
+        }
+        var tokenInfo = jwtService.verify(token).orElse(null);
+        if (tokenInfo == null) {
+            return IntrospectionResponse.INACTIVE;
+        }
+        if (revocationService.isRevoked(tokenInfo.tokenId())
+                || !accountVersions.isCurrent(tokenInfo.username(), tokenInfo.accountVersion())) {
+            return IntrospectionResponse.INACTIVE;
+        }
+        return new IntrospectionResponse(true,
+                tokenInfo.username(),
+                tokenInfo.username(),
+                tokenInfo.expiration().getEpochSecond(),
+                tokenInfo.tokenId(),
+                tokenInfo.authorities(),
+                tokenInfo.userId(),
+                tokenInfo.accountVersion());
+    }
+
+    /**
+     * 批量内省，结果顺序与输入一致；超过 max-batch-size 时拒绝整个请求
+     */
+    public List<IntrospectionResponse> introspectAll(List<String> tokens) {
+        if (tokens.size() > maxBatchSize) {
+            throw new BusinessException(ErrorCode.INTROSPECTION_BATCH_TOO_LARGE);
+        }
+        var results = new ArrayList<IntrospectionResponse>(tokens.size());
+        for (var token : tokens) {
+            results.add(introspect(token));
+        }
+        return results;
+    }
+}
@@ -0,0 +1,170 @@
+package com.github.frank.auth.service;
+
+import com.github.frank.auth.entity.RevokedToken;
+import com.github.frank.auth.repository.RevokedTokenRepository;
+import com.github.frank.common.invalidation.InvalidationBus;
+import com.github.frank.common.invalidation.InvalidationEvent;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 访问令牌撤销列表。撤销记录持久化到 revoked_tokens，并镜像到内存：布隆过滤器 + 精确集合。
+ * 绝大多数请求的令牌未被撤销，布隆过滤器直接给出否定结果，检查过程无锁、无分配；
+ * 只有过滤器命中时才查精确集合。撤销经失效总线通知其他节点增量同步，过期条目定期清理并重建过滤器。
+ *
+ * @author Frank An
+ */
+@Slf4j
+@Service
+public class TokenRevocationService {
+
+    // 增量同步时向前多读的时间窗口，覆盖事务提交顺序与 revoked_at 顺序不一致的情况
+    private static final Duration SYNC_OVERLAP = Duration.ofSeconds(30);
+    private static final String DATABASE_TIME_SQL = "select current_timestamp(3)";
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final InvalidationBus invalidationBus;
+    private final int expectedRevocations;
+    private final double falsePositiveRate;
+    // jti -> 令牌过期时间 (epoch millis)
+    private final ConcurrentHashMap<String, Long> revoked = new ConcurrentHashMap<>();
+    // 写入与重建互斥，避免重建期间新增的撤销丢失；读路径不加锁
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile RevocationBloomFilter filter;
+    private volatile Instant syncWatermark = Instant.EPOCH;
+
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository,
+                                  JdbcTemplate jdbcTemplate,
+                                  InvalidationBus invalidationBus,
+                                  @Value("${jwt.revocation.expected-revocations:100000}") int expectedRevocations,
+                                  @Value("${jwt.revocation.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.invalidationBus = invalidationBus;
+        this.expectedRevocations = expectedRevocations;
+        this.falsePositiveRate = falsePositiveRate;
+        this.filter = new RevocationBloomFilter(expectedRevocations, falsePositiveRate);
+        // 其他节点撤销了本节点尚未知道的令牌时立即增量同步，不必等待定时同步
+        invalidationBus.subscribe(InvalidationEvent.Type.TOKEN_REVOKED, jtis -> {
+            if (!revoked.keySet().containsAll(jtis)) {
+                sync();
+            }
+        });
+    }
+
+    @PostConstruct
+    public void load() {
+        // 水位线从数据库时钟起步：之后提交的撤销由增量同步拉取，之前的由下面的全量加载覆盖。
+        // 不从 EPOCH 起步，否则在出现新撤销之前每次同步都会扫描整张表
+        advanceWatermark(databaseTime());
+        var now = Instant.now();
+        for (var token : revokedTokenRepository.findByExpiresAtAfter(now)) {
+            add(token.getJti(), token.getExpiresAt());
+            advanceWatermark(token.getRevokedAt());
+        }
+        log.info("Loaded {} revoked tokens", revoked.size());
+    }
+
+    /**
+     * 令牌是否已被撤销。jti 为空（未携带 jti 的旧令牌）视为未撤销。
+     */
+    public boolean isRevoked(String jti) {
+        if (jti == null || !filter.mightContain(jti)) {
+            return false;
+        }
+        return revoked.containsKey(jti);
+    }
+
+    public void revoke(String jti, Instant expiresAt) {
+        if (jti == null || !expiresAt.isAfter(Instant.now())) {
+            return;
+        }
+        // 先持久化再写内存：保存失败时本节点也不视为已撤销，避免各节点状态不一致
+        try {
+            var token = new RevokedToken();
+            token.setJti(jti);
+            token.setExpiresAt(expiresAt);
+            revokedTokenRepository.save(token);
+        } catch (DataIntegrityViolationException e) {
+            // 其他请求或节点已写入同一 jti，本节点可能尚未同步到
+            log.debug("Token {} already revoked", jti);
+            add(jti, expiresAt);
+            return;
+        }
+        add(jti, expiresAt);
+        invalidationBus.publish(InvalidationEvent.Type.TOKEN_REVOKED, jti);
+    }
+
+    /**
+     * 增量拉取其他节点写入的撤销记录；通常由失效总线触发，定时执行只作兜底
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.sync-interval:PT1M}")
+    public void sync() {
+        var since = syncWatermark.minus(SYNC_OVERLAP);
+        // 已过期的撤销无需同步，令牌本身已无法通过验签
+        for (var token : revokedTokenRepository.findByRevokedAtGreaterThanEqualAndExpiresAtAfter(since, Instant.now())) {
+            if (!revoked.containsKey(token.getJti())) {
+                add(token.getJti(), token.getExpiresAt());
+            }
+            advanceWatermark(token.getRevokedAt());
+        }
+    }
+
+    /**
+     * 清理已过期的撤销记录：令牌过期后本身就无法通过验签，无需再保留
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.prune-interval:PT10M}")
+    @Transactional
+    public void prune() {
+        long now = System.currentTimeMillis();
+        writeLock.lock();
+        try {
+            if (revoked.values().removeIf(expiresAt -> expiresAt <= now)) {
+                var rebuilt = new RevocationBloomFilter(Math.max(expectedRevocations, revoked.size()), falsePositiveRate);
+                revoked.keySet().forEach(rebuilt::put);
+                filter = rebuilt;
+            }
+        } finally {
+            writeLock.unlock();
+        }
+        int deleted = revokedTokenRepository.deleteExpired(Instant.ofEpochMilli(now));
+        if (deleted > 0) {
+            log.info("Pruned {} expired revoked tokens", deleted);
+        }
+    }
+
+    private void add(String jti, Instant expiresAt) {
+        writeLock.lock();
+        try {
+            // 先写精确集合再写过滤器：过滤器命中时精确集合中一定已存在
+            revoked.put(jti, expiresAt.toEpochMilli());
+            filter.put(jti);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private Instant databaseTime() {
+        var now = jdbcTemplate.queryForObject(DATABASE_TIME_SQL, Timestamp.class);
+        return now == null ? Instant.EPOCH : now.toInstant();
+    }
+
+    private void advanceWatermark(Instant revokedAt) {
+        if (revokedAt != null && revokedAt.isAfter(syncWatermark)) {
+            syncWatermark = revokedAt;
+        }
+    }
+}
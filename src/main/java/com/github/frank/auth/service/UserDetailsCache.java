@@ -0,0 +1,98 @@
+package com.github.frank.auth.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.frank.auth.dto.AuthUser;
+import com.github.frank.common.invalidation.InvalidationBus;
+import com.github.frank.common.invalidation.InvalidationEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * CustomUserDetailsService 前的进程内缓存：W-TinyLFU 淘汰、按条目 TTL 过期，并对不存在的用户名做负缓存。
+ * 用户或角色发生变更时必须调用 {@link #evictAfterCommit(String)}，其他节点经失效总线同步失效。
+ *
+ * @author Frank An
+ */
+@Slf4j
+@Component
+public class UserDetailsCache implements UserCache {
+
+    private final boolean enabled;
+    private final InvalidationBus invalidationBus;
+    private final Cache<String, AuthUser> users;
+    private final Cache<String, Boolean> unknownUsers;
+
+    public UserDetailsCache(@Value("${auth.user-cache.enabled:true}") boolean enabled,
+                            @Value("${auth.user-cache.maximum-size:10000}") long maximumSize,
+                            @Value("${auth.user-cache.ttl:1m}") Duration ttl,
+                            @Value("${auth.user-cache.negative-ttl:10s}") Duration negativeTtl,
+                            MeterRegistry meterRegistry,
+                            InvalidationBus invalidationBus) {
+        this.enabled = enabled;
+        this.invalidationBus = invalidationBus;
+        this.users = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.unknownUsers = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(negativeTtl)
+                .recordStats()
+                .build();
+        // 暴露 cache.gets{result=hit|miss}、cache.evictions 等指标
+        CaffeineCacheMetrics.monitor(meterRegistry, users, "userDetails");
+        CaffeineCacheMetrics.monitor(meterRegistry, unknownUsers, "unknownUsers");
+        invalidationBus.subscribe(InvalidationEvent.Type.USER, usernames -> usernames.forEach(this::removeUserFromCache));
+    }
+
+    @Override
+    public UserDetails getUserFromCache(String username) {
+        return enabled ? users.getIfPresent(username) : null;
+    }
+
+    @Override
+    public void putUserInCache(UserDetails user) {
+        if (enabled && user instanceof AuthUser authUser) {
+            users.put(authUser.getUsername(), authUser);
+            unknownUsers.invalidate(authUser.getUsername());
+        }
+    }
+
+    public boolean isKnownMissing(String username) {
+        return enabled && unknownUsers.getIfPresent(username) != null;
+    }
+
+    public void putMissing(String username) {
+        if (enabled) {
+            unknownUsers.put(username, Boolean.TRUE);
+        }
+    }
+
+    @Override
+    public void removeUserFromCache(String username) {
+        users.invalidate(username);
+        unknownUsers.invalidate(username);
+    }
+
+    /**
+     * 通过失效总线在所有节点上失效：当前事务提交后才投递，避免提交前被并发请求重新加载旧数据
+     */
+    public void evictAfterCommit(String username) {
+        invalidationBus.publish(InvalidationEvent.Type.USER, username);
+    }
+
+    public void invalidateAll() {
+        users.invalidateAll();
+        unknownUsers.invalidateAll();
+        log.info("User details cache cleared");
+    }
+}
@@ -0,0 +1,448 @@
+package com.github.frank.auth.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.frank.auth.dto.UserImportError;
+import com.github.frank.auth.dto.UserImportProgress;
+import com.github.frank.auth.dto.UserImportRow;
+import com.github.frank.common.config.PasswordEncoderConfig;
+import com.github.frank.common.exception.ErrorCode;
+import com.github.frank.system.service.RoleCatalog;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * 批量导入用户：逐行流式解析请求体，按批并行哈希密码（或接受预先哈希的值），再用 JDBC 批量写入
+ * users 和 user_roles。任意时刻只持有一个批次，内存占用与导入总量无关。
+ *
+ * @author Frank An
+ */
+@Slf4j
+@Service
+public class UserImportService implements DisposableBean {
+
+    public enum ImportFormat {
+        NDJSON,
+        CSV
+    }
+
+    private static final String DEFAULT_ROLE = "ROLE_USER";
+    // 只接受 PasswordEncoderConfig 注册的两种算法：{bcrypt} 前缀或 V1 时期无前缀的 bcrypt 哈希（22 位盐 + 31 位哈希），
+    // 以及 {argon2} 前缀的 PHC 格式哈希。{noop}、{sha256} 等前缀一律拒绝
+    private static final String BCRYPT_HASH = "\\$2[aby]?\\$(?<cost>0[4-9]|[12]\\d|3[01])\\$[./A-Za-z0-9]{53}";
+    private static final String ARGON2_HASH = "\\$argon2(id|i|d)\\$v=\\d+"
+            + "\\$m=(?<memory>\\d{1,10}),t=(?<iterations>\\d{1,10}),p=(?<parallelism>\\d{1,10})"
+            + "\\$[A-Za-z0-9+/]+\\$[A-Za-z0-9+/]+";
+    // 预哈希密码的成本上限：bcrypt 允许比当前配置高 2 级（约 4 倍耗时），argon2 的 m/t/p 不得超过当前配置。
+    // 否则一行 $2a$31$ 或超大 m 的哈希会让该用户首次登录占用一个哈希线程数小时
+    private static final int BCRYPT_COST_HEADROOM = 2;
+    private static final Pattern PASSWORD_HASH = Pattern.compile(
+            "^((\\{bcrypt})?" + BCRYPT_HASH + "|\\{argon2}" + ARGON2_HASH + ")$");
+
+    private static final String INSERT_USER = "INSERT INTO users (username, password, email, enabled) VALUES (?, ?, ?, TRUE)";
+    private static final String INSERT_USER_ROLE = "INSERT INTO user_roles (user_id, role_id) VALUES (?, ?)";
+
+    private record ParsedRow(long line, UserImportRow row, UserImportError error) {
+    }
+
+    private record ValidRow(long line, String username, String email, String rawPassword, String passwordHash,
+                            Set<Long> roleIds) {
+    }
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final RoleCatalog roleCatalog;
+    private final UserDetailsCache userDetailsCache;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final ExecutorService hashingPool;
+    private final int batchSize;
+    private final int maxBcryptStrength;
+    private final long maxArgon2MemoryKib;
+    private final long maxArgon2Iterations;
+
+    public UserImportService(NamedParameterJdbcTemplate jdbcTemplate,
+                             TransactionTemplate transactionTemplate,
+                             PasswordEncoder passwordEncoder,
+                             RoleCatalog roleCatalog,
+                             UserDetailsCache userDetailsCache,
+                             ObjectMapper objectMapper,
+                             Validator validator,
+                             @Value("${auth.user-import.batch-size:500}") int batchSize,
+                             @Value("${auth.user-import.hashing-threads:0}") int hashingThreads,
+                             @Value("${auth.password-encoder.bcrypt-strength:10}") int bcryptStrength,
+                             @Value("${auth.password-encoder.argon2-memory-kib:16384}") int argon2MemoryKib,
+                             @Value("${auth.password-encoder.argon2-iterations:2}") int argon2Iterations) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.passwordEncoder = passwordEncoder;
+        this.roleCatalog = roleCatalog;
+        this.userDetailsCache = userDetailsCache;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.batchSize = batchSize;
+        this.maxBcryptStrength = bcryptStrength + BCRYPT_COST_HEADROOM;
+        this.maxArgon2MemoryKib = argon2MemoryKib;
+        this.maxArgon2Iterations = argon2Iterations;
+        // 导入不走登录用的 PasswordHashingExecutor，默认只用一半的核，给登录和验签留出 CPU
+        this.hashingPool = Executors.newFixedThreadPool(
+                hashingThreads > 0 ? hashingThreads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+    }
+
+    /**
+     * 导入并在每个批次完成后回调进度，返回最终汇总
+     */
+    public UserImportProgress importUsers(Reader body, ImportFormat format, Consumer<UserImportProgress> progressListener)
+            throws IOException {
+        var reader = new BufferedReader(body);
+        long processed = 0;
+        long imported = 0;
+        long failed = 0;
+
+        String[] csvHeader = format == ImportFormat.CSV ? parseCsvHeader(reader.readLine()) : null;
+        long line = format == ImportFormat.CSV ? 1 : 0;
+        var batch = new ArrayList<ParsedRow>(batchSize);
+
+        String text;
+        while (true) {
+            text = reader.readLine();
+            if (text != null) {
+                line++;
+                if (text.isBlank()) {
+                    continue;
+                }
+                batch.add(format == ImportFormat.CSV ? parseCsv(line, text, csvHeader) : parseNdjson(line, text));
+                if (batch.size() < batchSize) {
+                    continue;
+                }
+            }
+            if (!batch.isEmpty()) {
+                var errors = processBatch(batch);
+                processed += batch.size();
+                failed += errors.size();
+                imported += batch.size() - errors.size();
+                progressListener.accept(new UserImportProgress(processed, imported, failed, errors, false));
+                log.info("User import progress: {} processed, {} imported, {} failed", processed, imported, failed);
+                batch.clear();
+            }
+            if (text == null) {
+                break;
+            }
+        }
+        return new UserImportProgress(processed, imported, failed, List.of(), true);
+    }
+
+    private List<UserImportError> processBatch(List<ParsedRow> batch) {
+        var errors = new ArrayList<UserImportError>();
+        var candidates = new ArrayList<ValidRow>(batch.size());
+        var seenUsernames = new HashSet<String>();
+        var seenEmails = new HashSet<String>();
+
+        for (var parsed : batch) {
+            if (parsed.error() != null) {
+                errors.add(parsed.error());
+                continue;
+            }
+            var validated = validate(parsed, errors);
+            if (validated == null) {
+                continue;
+            }
+            // 批次内部的重复
+            if (!seenUsernames.add(validated.username())) {
+                errors.add(error(validated, ErrorCode.USERNAME_ALREADY_EXISTS));
+            } else if (!seenEmails.add(validated.email())) {
+                errors.add(error(validated, ErrorCode.EMAIL_ALREADY_EXISTS));
+            } else {
+                candidates.add(validated);
+            }
+        }
+        candidates = excludeExisting(candidates, errors);
+        if (candidates.isEmpty()) {
+            return errors;
+        }
+
+        var hashed = hashPasswords(candidates);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                insertBatch(hashed);
+                // 在插入事务内发布，提交后所有节点清除这些用户名的负缓存；回滚则不发布
+                hashed.forEach(row -> userDetailsCache.evictAfterCommit(row.username()));
+            });
+        } catch (DuplicateKeyException e) {
+            // 预检查之后被并发写入抢先，退回逐行插入以定位冲突行
+            log.debug("Batch insert hit a duplicate key, retrying row by row");
+            for (var row : hashed) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> {
+                        insertOne(row);
+                        userDetailsCache.evictAfterCommit(row.username());
+                    });
+                } catch (DuplicateKeyException duplicate) {
+                    // 与注册共用约束名映射；不是用户名或邮箱冲突时中止导入
+                    errors.add(error(row, UserUniqueKeys.duplicateErrorOf(duplicate).orElseThrow(() -> duplicate)));
+                }
+            }
+        }
+        errors.sort(Comparator.comparingLong(UserImportError::line));
+        return errors;
+    }
+
+    private ValidRow validate(ParsedRow parsed, List<UserImportError> errors) {
+        var row = parsed.row();
+        Set<ConstraintViolation<UserImportRow>> violations = validator.validate(row);
+        if (!violations.isEmpty()) {
+            var message = violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+            errors.add(new UserImportError(parsed.line(), row.username(), ErrorCode.INVALID_REQUEST.getCode(), message));
+            return null;
+        }
+        boolean hasPassword = row.password() != null && !row.password().isEmpty();
+        boolean hasHash = row.passwordHash() != null && !row.passwordHash().isEmpty();
+        if (hasPassword == hasHash) {
+            errors.add(new UserImportError(parsed.line(), row.username(), ErrorCode.INVALID_REQUEST.getCode(),
+                    "Exactly one of password or passwordHash is required"));
+            return null;
+        }
+        if (hasHash) {
+            var hash = PASSWORD_HASH.matcher(row.passwordHash());
+            if (!hash.matches()) {
+                errors.add(new UserImportError(parsed.line(), row.username(), ErrorCode.INVALID_REQUEST.getCode(),
+                        "Unsupported password hash format"));
+                return null;
+            }
+            if (exceedsCostLimit(hash)) {
+                errors.add(new UserImportError(parsed.line(), row.username(), ErrorCode.INVALID_REQUEST.getCode(),
+                        "Password hash cost exceeds the configured limit"));
+                return null;
+            }
+        }
+
+        var roleNames = row.roles() == null || row.roles().isEmpty() ? Set.of(DEFAULT_ROLE) : row.roles();
+        var roleIds = new HashSet<Long>();
+        for (var roleName : roleNames) {
+            var role = roleCatalog.findByName(roleName);
+            if (role.isEmpty()) {
+                errors.add(new UserImportError(parsed.line(), row.username(), ErrorCode.ROLE_NOT_FOUND.getCode(),
+                        ErrorCode.ROLE_NOT_FOUND.getMessage() + ": " + roleName));
+                return null;
+            }
+            roleIds.add(role.get().id());
+        }
+        return new ValidRow(parsed.line(), row.username(), row.email(),
+                hasPassword ? row.password() : null, hasHash ? row.passwordHash() : null, roleIds);
+    }
+
+    private boolean exceedsCostLimit(Matcher hash) {
+        if (hash.group("cost") != null) {
+            return Integer.parseInt(hash.group("cost")) > maxBcryptStrength;
+        }
+        return Long.parseLong(hash.group("memory")) > maxArgon2MemoryKib
+                || Long.parseLong(hash.group("iterations")) > maxArgon2Iterations
+                || Long.parseLong(hash.group("parallelism")) > PasswordEncoderConfig.ARGON2_PARALLELISM;
+    }
+
+    /**
+     * 一次查询找出库中已存在的用户名和邮箱
+     */
+    private ArrayList<ValidRow> excludeExisting(List<ValidRow> candidates, List<UserImportError> errors) {
+        var result = new ArrayList<ValidRow>(candidates.size());
+        if (candidates.isEmpty()) {
+            return result;
+        }
+        var params = new MapSqlParameterSource()
+                .addValue("usernames", candidates.stream().map(ValidRow::username).toList())
+                .addValue("emails", candidates.stream().map(ValidRow::email).toList());
+        var existingUsernames = new HashSet<String>();
+        var existingEmails = new HashSet<String>();
+        jdbcTemplate.query("SELECT username, email FROM users WHERE username IN (:usernames) OR email IN (:emails)",
+                params, rs -> {
+                    existingUsernames.add(rs.getString(1).toLowerCase(Locale.ROOT));
+                    existingEmails.add(rs.getString(2).toLowerCase(Locale.ROOT));
+                });
+
+        for (var row : candidates) {
+            if (existingUsernames.contains(row.username().toLowerCase(Locale.ROOT))) {
+                errors.add(error(row, ErrorCode.USERNAME_ALREADY_EXISTS));
+            } else if (existingEmails.contains(row.email().toLowerCase(Locale.ROOT))) {
+                errors.add(error(row, ErrorCode.EMAIL_ALREADY_EXISTS));
+            } else {
+                result.add(row);
+            }
+        }
+        return result;
+    }
+
+    private List<ValidRow> hashPasswords(List<ValidRow> rows) {
+        var futures = rows.stream()
+                .map(row -> row.passwordHash() != null
+                        ? CompletableFuture.completedFuture(row)
+                        : CompletableFuture.supplyAsync(() -> new ValidRow(row.line(), row.username(), row.email(),
+                        null, passwordEncoder.encode(row.rawPassword()), row.roleIds()), hashingPool))
+                .toList();
+        return futures.stream()
+                .map(CompletableFuture::join)
+                .toList();
+    }
+
+    private void insertBatch(List<ValidRow> rows) {
+        var jdbc = jdbcTemplate.getJdbcTemplate();
+        jdbc.batchUpdate(INSERT_USER, rows, rows.size(), (ps, row) -> {
+            ps.setString(1, row.username());
+            ps.setString(2, row.passwordHash());
+            ps.setString(3, row.email());
+        });
+
+        var ids = new HashMap<String, Long>();
+        jdbcTemplate.query("SELECT id, username FROM users WHERE username IN (:usernames)",
+                Map.of("usernames", rows.stream().map(ValidRow::username).toList()),
+                rs -> {
+                    ids.put(rs.getString(2).toLowerCase(Locale.ROOT), rs.getLong(1));
+                });
+
+        var userRoles = new ArrayList<long[]>();
+        for (var row : rows) {
+            long userId = ids.get(row.username().toLowerCase(Locale.ROOT));
+            row.roleIds().forEach(roleId -> userRoles.add(new long[]{userId, roleId}));
+        }
+        jdbc.batchUpdate(INSERT_USER_ROLE, userRoles, userRoles.size(), (ps, pair) -> {
+            ps.setLong(1, pair[0]);
+            ps.setLong(2, pair[1]);
+        });
+    }
+
+    private void insertOne(ValidRow row) {
+        var jdbc = jdbcTemplate.getJdbcTemplate();
+        var keyHolder = new GeneratedKeyHolder();
+        jdbc.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(INSERT_USER, Statement.RETURN_GENERATED_KEYS);
+            ps.setString(1, row.username());
+            ps.setString(2, row.passwordHash());
+            ps.setString(3, row.email());
+            return ps;
+        }, keyHolder);
+        long userId = Objects.requireNonNull(keyHolder.getKey()).longValue();
+        for (var roleId : row.roleIds()) {
+            jdbc.update(INSERT_USER_ROLE, userId, roleId);
+        }
+    }
+
+    private ParsedRow parseNdjson(long line, String text) {
+        try {
+            return new ParsedRow(line, objectMapper.readValue(text, UserImportRow.class), null);
+        } catch (JsonProcessingException e) {
+            return new ParsedRow(line, null,
+                    new UserImportError(line, null, ErrorCode.INVALID_REQUEST.getCode(), "Malformed JSON"));
+        }
+    }
+
+    private static String[] parseCsvHeader(String header) {
+        if (header == null) {
+            return new String[0];
+        }
+        var columns = splitCsv(header);
+        for (int i = 0; i < columns.size(); i++) {
+            columns.set(i, columns.get(i).trim().toLowerCase(Locale.ROOT));
+        }
+        return columns.toArray(String[]::new);
+    }
+
+    /**
+     * 列名：username、email、password、password_hash、roles（多个角色以 ; 分隔）
+     */
+    private static ParsedRow parseCsv(long line, String text, String[] header) {
+        var values = splitCsv(text);
+        if (values.size() != header.length) {
+            return new ParsedRow(line, null, new UserImportError(line, null, ErrorCode.INVALID_REQUEST.getCode(),
+                    "Expected " + header.length + " columns but found " + values.size()));
+        }
+        String username = null;
+        String email = null;
+        String password = null;
+        String passwordHash = null;
+        Set<String> roles = null;
+        for (int i = 0; i < header.length; i++) {
+            var value = values.get(i).isEmpty() ? null : values.get(i);
+            switch (header[i]) {
+                case "username" -> username = value;
+                case "email" -> email = value;
+                case "password" -> password = value;
+                case "password_hash" -> passwordHash = value;
+                case "roles" -> roles = value == null ? null : Arrays.stream(value.split(";"))
+                        .map(String::trim)
+                        .filter(role -> !role.isEmpty())
+                        .collect(Collectors.toSet());
+                default -> {
+                    // 忽略未知列
+                }
+            }
+        }
+        return new ParsedRow(line, new UserImportRow(username, email, password, passwordHash, roles), null);
+    }
+
+    /**
+     * RFC 4180 风格的单行拆分，支持双引号包裹和 "" 转义；不支持字段内换行
+     */
+    private static List<String> splitCsv(String text) {
+        var values = new ArrayList<String>();
+        var current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+        return values;
+    }
+
+    private static UserImportError error(ValidRow row, ErrorCode errorCode) {
+        return new UserImportError(row.line(), row.username(), errorCode.getCode(), errorCode.getMessage());
+    }
+
+    @Override
+    public void destroy() {
+        hashingPool.shutdown();
+    }
+}
@@ -0,0 +1,59 @@
+package com.github.frank.auth.service;
+
+import com.github.frank.common.exception.ErrorCode;
+import org.hibernate.exception.ConstraintViolationException;
+
+import java.sql.SQLException;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * users 表唯一约束名到业务错误码的精确映射，注册（JPA）与批量导入（JDBC）共用。
+ * 只按约束名判断，不匹配错误信息中的任意文本：违反其他约束（外键、user_roles 等）时返回 empty，由调用方原样抛出。
+ *
+ * @author Frank An
+ */
+final class UserUniqueKeys {
+
+    // V5 中显式命名的邮箱唯一约束
+    static final String EMAIL = "uk_users_email";
+    // V1 中 username 列的内联 UNIQUE 未命名，MySQL 以列名作为索引名
+    static final String USERNAME = "username";
+
+    // MySQL 1062：Duplicate entry '...' for key 'users.uk_users_email'（8.0 起带表名前缀）
+    private static final Pattern MYSQL_DUPLICATE_KEY = Pattern.compile("for key '([^']+)'");
+
+    private UserUniqueKeys() {
+    }
+
+    /**
+     * 违反的是用户名或邮箱唯一约束时返回对应错误码
+     */
+    static Optional<ErrorCode> duplicateErrorOf(Throwable e) {
+        return constraintNameOf(e).map(name -> switch (name) {
+            case EMAIL -> ErrorCode.EMAIL_ALREADY_EXISTS;
+            case USERNAME -> ErrorCode.USERNAME_ALREADY_EXISTS;
+            default -> null;
+        });
+    }
+
+    /**
+     * 优先使用 Hibernate 方言解析出的约束名，JDBC 路径下从驱动的错误信息中提取；统一去掉表名前缀并转为小写
+     */
+    static Optional<String> constraintNameOf(Throwable e) {
+        for (var cause = e; cause != null; cause = cause.getCause()) {
+            String name = null;
+            if (cause instanceof ConstraintViolationException violation) {
+                name = violation.getConstraintName();
+            } else if (cause instanceof SQLException sqlException && sqlException.getMessage() != null) {
+                var matcher = MYSQL_DUPLICATE_KEY.matcher(sqlException.getMessage());
+                name = matcher.find() ? matcher.group(1) : null;
+            }
+            if (name != null) {
+                return Optional.of(name.substring(name.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT));
+            }
+        }
+        return Optional.empty();
+    }
+}
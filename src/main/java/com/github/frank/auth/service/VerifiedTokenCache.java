@@ -0,0 +1,108 @@
+package com.github.frank.auth.service;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 已验签令牌的缓存，避免同一令牌在有效期内反复做 HMAC 校验和 JSON 解析。
+ * <p>
+ * 固定容量的开放寻址表，以 64 位摘要定位槽位，命中时再比较完整令牌，摘要碰撞不会返回错误声明。
+ * 每个条目在令牌自身 exp 之前过期；探测窗口内没有空位时淘汰最早过期的条目，内存始终有界。
+ * 读路径无锁、无分配。撤销检查由调用方在命中后执行，也可通过 {@link #purgeTokenId(String)} 主动清除。
+ *
+ * @author Frank An
+ */
+final class VerifiedTokenCache {
+
+    private static final int PROBE_LIMIT = 4;
+
+    private record Entry(long digest, String token, JwtService.JwtTokenInfo info, long expiresAtMillis) {
+    }
+
+    private final AtomicReferenceArray<Entry> table;
+    private final int mask;
+
+    VerifiedTokenCache(int maxEntries) {
+        int capacity = Integer.highestOneBit(Math.max(PROBE_LIMIT, maxEntries - 1)) << 1;
+        this.table = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+    }
+
+    JwtService.JwtTokenInfo get(String token, long nowMillis) {
+        long digest = digest(token);
+        int index = (int) digest & mask;
+        for (int i = 0; i < PROBE_LIMIT; i++) {
+            int slot = (index + i) & mask;
+            Entry entry = table.get(slot);
+            if (entry != null && entry.digest == digest && entry.token.equals(token)) {
+                if (entry.expiresAtMillis > nowMillis) {
+                    return entry.info;
+                }
+                table.compareAndSet(slot, entry, null);
+                return null;
+            }
+        }
+        return null;
+    }
+
+    void put(String token, JwtService.JwtTokenInfo info, long nowMillis) {
+        long expiresAt = info.expiration().toEpochMilli();
+        if (expiresAt <= nowMillis) {
+            return;
+        }
+        long digest = digest(token);
+        int index = (int) digest & mask;
+        var fresh = new Entry(digest, token, info, expiresAt);
+
+        int victim = index;
+        long victimExpiresAt = Long.MAX_VALUE;
+        for (int i = 0; i < PROBE_LIMIT; i++) {
+            int slot = (index + i) & mask;
+            Entry entry = table.get(slot);
+            if (entry == null || entry.expiresAtMillis <= nowMillis
+                    || (entry.digest == digest && entry.token.equals(token))) {
+                table.set(slot, fresh);
+                return;
+            }
+            if (entry.expiresAtMillis < victimExpiresAt) {
+                victim = slot;
+                victimExpiresAt = entry.expiresAtMillis;
+            }
+        }
+        table.set(victim, fresh);
+    }
+
+    /**
+     * 清除指定 jti 的所有条目，返回清除数量。全表扫描，只用于撤销这类低频操作。
+     */
+    int purgeTokenId(String tokenId) {
+        int purged = 0;
+        for (int slot = 0; slot < table.length(); slot++) {
+            Entry entry = table.get(slot);
+            if (entry != null && tokenId.equals(entry.info.tokenId()) && table.compareAndSet(slot, entry, null)) {
+                purged++;
+            }
+        }
+        return purged;
+    }
+
+    void clear() {
+        for (int slot = 0; slot < table.length(); slot++) {
+            table.set(slot, null);
+        }
+    }
+
+    /**
+     * FNV-1a 后做一次 64 位 finalizer 混合，保证低位分布均匀
+     */
+    private static long digest(String token) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0, length = token.length(); i < length; i++) {
+            hash ^= token.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
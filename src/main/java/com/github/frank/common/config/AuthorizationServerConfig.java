@@ -0,0 +1,117 @@
+package com.github.frank.common.config;
+
+import com.github.frank.auth.service.CachingRegisteredClientRepository;
+import com.github.frank.auth.service.ClientCredentialsFastPathAuthorizationService;
+import com.github.frank.auth.service.JwtKeyRing;
+import com.github.frank.auth.service.KeyRingJwkSource;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.core.OAuth2AuthenticationException;
+import org.springframework.security.oauth2.core.OAuth2Error;
+import org.springframework.security.oauth2.core.OAuth2ErrorCodes;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.server.authorization.JdbcOAuth2AuthorizationService;
+import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationService;
+import org.springframework.security.oauth2.server.authorization.authentication.ClientSecretAuthenticationProvider;
+import org.springframework.security.oauth2.server.authorization.client.JdbcRegisteredClientRepository;
+import org.springframework.security.oauth2.server.authorization.client.RegisteredClientRepository;
+import org.springframework.security.oauth2.server.authorization.config.annotation.web.configuration.OAuth2AuthorizationServerConfiguration;
+import org.springframework.security.oauth2.server.authorization.config.annotation.web.configurers.OAuth2AuthorizationServerConfigurer;
+import org.springframework.security.oauth2.server.authorization.settings.AuthorizationServerSettings;
+import org.springframework.security.oauth2.server.authorization.token.JwtEncodingContext;
+import org.springframework.security.oauth2.server.authorization.token.OAuth2TokenCustomizer;
+import org.springframework.security.web.SecurityFilterChain;
+
+import java.time.Duration;
+
+/**
+ * OAuth2 授权服务器（/oauth2/token 等端点），面向机器客户端，与 /api/v1/auth/login 并存。
+ * 客户端与授权记录存储在数据库，令牌由 JwtKeyRing 签名，与用户登录令牌共用同一套验签方式。
+ * client_credentials 快速路径：客户端查询与密钥校验走缓存，授权记录不落库，签发令牌只剩一次签名。
+ *
+ * @author Frank An
+ */
+@Configuration
+public class AuthorizationServerConfig {
+
+    /**
+     * 只匹配授权服务器端点，优先于 SecurityConfig 中的默认过滤器链
+     */
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public SecurityFilterChain authorizationServerSecurityFilterChain(
+            HttpSecurity http,
+            PasswordEncoder passwordEncoder,
+            @Value("${auth.oauth2.client-secret-cache.maximum-size:10000}") long secretCacheSize,
+            @Value("${auth.oauth2.client-secret-cache.ttl:10m}") Duration secretCacheTtl) throws Exception {
+        OAuth2AuthorizationServerConfiguration.applyDefaultSecurity(http);
+        var clientSecretEncoder = new CachingClientSecretEncoder(passwordEncoder, secretCacheSize, secretCacheTtl);
+        http.getConfigurer(OAuth2AuthorizationServerConfigurer.class)
+                .clientAuthentication(clientAuthentication -> clientAuthentication
+                        .authenticationProviders(providers -> providers.forEach(provider -> {
+                            if (provider instanceof ClientSecretAuthenticationProvider clientSecretProvider) {
+                                clientSecretProvider.setPasswordEncoder(clientSecretEncoder);
+                            }
+                        })));
+        return http.build();
+    }
+
+    @Bean
+    public RegisteredClientRepository registeredClientRepository(
+            JdbcTemplate jdbcTemplate,
+            @Value("${auth.oauth2.client-cache.maximum-size:10000}") long maximumSize,
+            @Value("${auth.oauth2.client-cache.ttl:5m}") Duration ttl) {
+        return new CachingRegisteredClientRepository(new JdbcRegisteredClientRepository(jdbcTemplate), maximumSize, ttl);
+    }
+
+    @Bean
+    public OAuth2AuthorizationService authorizationService(
+            JdbcTemplate jdbcTemplate,
+            RegisteredClientRepository registeredClientRepository,
+            @Value("${auth.oauth2.persist-client-credentials:false}") boolean persistClientCredentials) {
+        var jdbcAuthorizationService = new JdbcOAuth2AuthorizationService(jdbcTemplate, registeredClientRepository);
+        return persistClientCredentials
+                ? jdbcAuthorizationService
+                : new ClientCredentialsFastPathAuthorizationService(jdbcAuthorizationService);
+    }
+
+    @Bean
+    public JWKSource<SecurityContext> jwkSource(JwtKeyRing keyRing) {
+        return new KeyRingJwkSource(keyRing);
+    }
+
+    /**
+     * 显式指定签名算法和 kid，使授权服务器总是使用密钥环当前激活的密钥；
+     * 激活的密钥无法用于授权服务器（EdDSA）时以 server_error 拒绝签发，而不是在签名时抛出未处理的异常
+     */
+    @Bean
+    public OAuth2TokenCustomizer<JwtEncodingContext> jwtHeaderCustomizer(JwtKeyRing keyRing) {
+        return context -> {
+            var active = keyRing.activeKey();
+            if (active == null) {
+                context.getJwsHeader().algorithm(MacAlgorithm.HS256);
+            } else if (!KeyRingJwkSource.isSupported(active)) {
+                throw new OAuth2AuthenticationException(new OAuth2Error(OAuth2ErrorCodes.SERVER_ERROR,
+                        "Authorization server cannot sign with " + active.algorithm().getId(), null));
+            } else {
+                context.getJwsHeader()
+                        .algorithm(SignatureAlgorithm.from(active.algorithm().getId()))
+                        .keyId(active.kid());
+            }
+        };
+    }
+
+    @Bean
+    public AuthorizationServerSettings authorizationServerSettings() {
+        return AuthorizationServerSettings.builder().build();
+    }
+}
@@ -0,0 +1,56 @@
+package com.github.frank.common.config;
+
+/**
+ * 在任何解码和验签之前，直接在 Authorization 头上做结构检查：不截取子串、不分配对象。
+ * 合法的 JWS 紧凑格式为三段非空 base64url，以 '.' 分隔，头部是 JSON 对象，因此第一段必然以 "eyJ"（{"）开头。
+ * alg 与 kid 由 jjwt 解析器和 JwtKeyRing 的 key locator 在计算签名之前校验，这里不重复解码头部。
+ *
+ * @author Frank An
+ */
+final class BearerTokens {
+
+    static final String BEARER_PREFIX = "Bearer ";
+    // 本服务签发的令牌不超过 1 KiB，上限留足余量
+    static final int MAX_TOKEN_LENGTH = 4096;
+    static final int MAX_HEADER_SEGMENT_LENGTH = 512;
+    private static final String JSON_OBJECT_PREFIX = "eyJ";
+    private static final int MIN_TOKEN_LENGTH = 5;
+
+    private BearerTokens() {
+    }
+
+    static boolean hasBearerPrefix(String authHeader) {
+        return authHeader != null && authHeader.startsWith(BEARER_PREFIX);
+    }
+
+    /**
+     * Authorization 头在 BEARER_PREFIX 之后是否为结构合法的 JWS
+     */
+    static boolean isWellFormed(String authHeader) {
+        int start = BEARER_PREFIX.length();
+        int tokenLength = authHeader.length() - start;
+        if (tokenLength < MIN_TOKEN_LENGTH || tokenLength > MAX_TOKEN_LENGTH
+                || !authHeader.startsWith(JSON_OBJECT_PREFIX, start)) {
+            return false;
+        }
+        int dots = 0;
+        int segmentStart = start;
+        for (int i = start; i < authHeader.length(); i++) {
+            char c = authHeader.charAt(i);
+            if (c == '.') {
+                if (i == segmentStart || ++dots > 2
+                        || (dots == 1 && i - start > MAX_HEADER_SEGMENT_LENGTH)) {
+                    return false;
+                }
+                segmentStart = i + 1;
+            } else if (!isBase64Url(c)) {
+                return false;
+            }
+        }
+        return dots == 2 && segmentStart < authHeader.length();
+    }
+
+    private static boolean isBase64Url(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '-' || c == '_';
+    }
+}
@@ -0,0 +1,42 @@
+package com.github.frank.common.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * auth.db-concurrency.enabled=true 时用 {@link ConcurrencyLimitingDataSource} 包装应用的 DataSource
+ *
+ * @author Frank An
+ */
+@Slf4j
+@Configuration
+public class DatabaseConcurrencyConfig {
+
+    /**
+     * BeanPostProcessor 需在其他 Bean 之前创建，因此为 static 方法，并直接从 Environment 读取配置
+     */
+    @Bean
+    @ConditionalOnProperty(name = "auth.db-concurrency.enabled", havingValue = "true")
+    public static BeanPostProcessor concurrencyLimitingDataSourcePostProcessor(Environment environment) {
+        int maxConcurrent = environment.getProperty("auth.db-concurrency.max-concurrent", Integer.class, 20);
+        var acquireTimeout = environment.getProperty("auth.db-concurrency.acquire-timeout", Duration.class,
+                Duration.ofSeconds(2));
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ConcurrencyLimitingDataSource)) {
+                    log.info("Limiting concurrent database access on {} to {} connections", beanName, maxConcurrent);
+                    return new ConcurrencyLimitingDataSource(dataSource, maxConcurrent, acquireTimeout);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -1,23 +1,36 @@
 package com.github.frank.common.config;
 
+import com.github.frank.auth.dto.AuthUser;
+import com.github.frank.auth.service.AccountVersionCache;
 import com.github.frank.auth.service.JwtService;
+import com.github.frank.auth.service.TokenRevocationService;
+import com.github.frank.common.exception.BusinessException;
+import com.github.frank.common.logging.SampledLogger;
+import com.github.frank.common.metrics.AuthMetrics;
+import com.github.frank.common.metrics.AuthMetrics.FilterOutcome;
+import com.github.frank.common.metrics.AuthMetrics.FilterStage;
+import com.github.frank.system.service.RoleCatalog;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.lang.NonNull;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.Objects;
+import java.time.Duration;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * @author Frank An
@@ -25,63 +38,138 @@ import java.util.Objects;
 
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    /**
+     * DB_VERIFIED：每个请求从数据库加载用户；CLAIMS_TRUSTED：直接信任令牌中的角色声明，不访问数据库
+     */
+    public enum AuthenticationMode {
+        DB_VERIFIED,
+        CLAIMS_TRUSTED
+    }
+
     private final JwtService jwtService;
+    private final TokenRevocationService revocationService;
     private final UserDetailsService userDetailsService;
-    private static final String BEARER_PREFIX = "Bearer ";
+    private final RoleCatalog roleCatalog;
+    private final AccountVersionCache accountVersions;
+    private final AuthenticationMode authenticationMode;
+    private final AuthMetrics authMetrics;
+    // 伪造令牌泛洪时每秒最多一条日志
+    private final SampledLogger rejectedTokenLog = new SampledLogger(log, Duration.ofSeconds(1));
+
+    public JwtAuthenticationFilter(JwtService jwtService,
+                                   TokenRevocationService revocationService,
+                                   UserDetailsService userDetailsService,
+                                   RoleCatalog roleCatalog,
+                                   AccountVersionCache accountVersions,
+                                   @Value("${jwt.authentication-mode:db-verified}") AuthenticationMode authenticationMode,
+                                   AuthMetrics authMetrics) {
+        this.jwtService = jwtService;
+        this.revocationService = revocationService;
+        this.userDetailsService = userDetailsService;
+        this.roleCatalog = roleCatalog;
+        this.accountVersions = accountVersions;
+        this.authenticationMode = authenticationMode;
+        this.authMetrics = authMetrics;
+    }
+
+    /**
+     * 公开路由不做任何令牌处理：浏览器在登录页等页面携带的旧令牌不会触发验签和用户加载
+     */
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return PublicRoutes.matches(request);
+    }
 
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request,
                                     @NonNull HttpServletResponse response,
                                     @NonNull FilterChain filterChain) throws ServletException, IOException {
+        var authentication = authenticate(request);
+        if (authentication != null) {
+            SecurityContextHolder.getContext().setAuthentication(authentication);
+        }
+        // 认证失败按未认证放行，由授权规则决定是否返回 401；后续过滤器的异常不在此处处理
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * 认证请求，无法认证时返回 null。各阶段耗时只在此处计时，不包含后续过滤器和业务处理。
+     */
+    private Authentication authenticate(HttpServletRequest request) {
+        long stageStart = System.nanoTime();
+
+        // 1. 获取token，没有 Bearer 令牌直接放行
+        String authHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (!BearerTokens.hasBearerPrefix(authHeader)) {
+            authMetrics.countFilterOutcome(FilterOutcome.ANONYMOUS);
+            return null;
+        }
+
+        // 2. 结构检查在原始头上完成：伪造令牌在截取子串、解码和验签之前即被拒绝
+        if (!BearerTokens.isWellFormed(authHeader)) {
+            authMetrics.countFilterOutcome(FilterOutcome.MALFORMED);
+            rejectedTokenLog.warn("Rejected malformed bearer token from {}", request.getRemoteAddr());
+            return null;
+        }
+        String jwt = authHeader.substring(BearerTokens.BEARER_PREFIX.length());
+        stageStart = authMetrics.recordStage(FilterStage.HEADER, stageStart);
+
+        // 3. 一次验签并提取声明，如果token已经过期或无效，直接放行
+        var tokenInfo = jwtService.verify(jwt).orElse(null);
+        stageStart = authMetrics.recordStage(FilterStage.VERIFY, stageStart);
+        if (tokenInfo == null) {
+            authMetrics.countFilterOutcome(FilterOutcome.INVALID);
+            rejectedTokenLog.warn("Rejected bearer token with invalid signature or expiry from {}", request.getRemoteAddr());
+            return null;
+        }
+
+        // 4. 已撤销的令牌同样按未认证放行；未撤销时只查布隆过滤器，不访问数据库
+        boolean revoked = revocationService.isRevoked(tokenInfo.tokenId());
+        stageStart = authMetrics.recordStage(FilterStage.REVOCATION, stageStart);
+        if (revoked) {
+            authMetrics.countFilterOutcome(FilterOutcome.REVOKED);
+            return null;
+        }
+
+        // 5. 获取用户详情：claims-trusted 模式下直接由声明构建；verify 只接受带 uid 的用户令牌
+        UserDetails userDetails;
         try {
-            // 1. 获取token
-            String authHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
-
-            // 2. 如果没有token或格式不对，直接放行
-            if (!hasValidAuthorizationHeader(authHeader)) {
-                filterChain.doFilter(request, response);
-                return;
-            }
-
-            // 3. 提取和验证token
-            String jwt = authHeader.substring(BEARER_PREFIX.length());
-
-            // 4. 如果token已经过期或无效，直接放行
-            if (!jwtService.validateToken(jwt)) {
-                filterChain.doFilter(request, response);
-                return;
-            }
-
-            // 5. 获取用户详情
-            var tokenInfo = jwtService.parseToken(jwt);
-            var userDetails = userDetailsService.loadUserByUsername(tokenInfo.username());
-
-            // 6. 创建认证令牌并设置到上下文
-            UsernamePasswordAuthenticationToken authenticated = UsernamePasswordAuthenticationToken
-                    .authenticated(userDetails, jwt, userDetails.getAuthorities());
-            // setDetails() 是用来存储额外的请求相关信息的。
-            // WebAuthenticationDetails 默认会记录两个信息：
-            // 1.远程地址（客户端IP）
-            // 2. 会话ID（如果有的话）
-            authenticated.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-            SecurityContextHolder.getContext().setAuthentication(authenticated);
-
-            // 7. 放行请求
-            filterChain.doFilter(request, response);
-        } catch (Exception e) {
-            log.error("JWT authentication failed: {}", e.getMessage());
-            SecurityContextHolder.clearContext();
-            filterChain.doFilter(request, response);
+            userDetails = authenticationMode == AuthenticationMode.CLAIMS_TRUSTED
+                    ? fromClaims(tokenInfo)
+                    : userDetailsService.loadUserByUsername(tokenInfo.username());
+        } catch (UsernameNotFoundException | BusinessException e) {
+            // 令牌签发后用户被删除或停用
+            authMetrics.countFilterOutcome(FilterOutcome.ERROR);
+            rejectedTokenLog.warn("Rejected bearer token of unavailable user: {}", e.getMessage());
+            return null;
         }
+
+        // 角色、状态或密码在签发后发生变更（ver 小于当前版本）的令牌按未认证处理
+        boolean current = authenticationMode == AuthenticationMode.CLAIMS_TRUSTED
+                ? accountVersions.isCurrent(tokenInfo.username(), tokenInfo.accountVersion())
+                : userDetails instanceof AuthUser authUser && tokenInfo.accountVersion() >= authUser.getAccountVersion();
+        authMetrics.recordStage(FilterStage.USER_LOAD, stageStart);
+        if (!current) {
+            authMetrics.countFilterOutcome(FilterOutcome.STALE);
+            rejectedTokenLog.warn("Rejected bearer token with stale account version for user {}", tokenInfo.username());
+            return null;
+        }
+
+        // 6. 创建认证结果；WebAuthenticationDetails（客户端 IP 等）在首次读取时才构建
+        authMetrics.countFilterOutcome(FilterOutcome.AUTHENTICATED);
+        return new JwtUserAuthentication(userDetails, jwt, request.getRemoteAddr());
     }
 
-    private boolean hasValidAuthorizationHeader(String authHeader) {
-        return Objects.nonNull(authHeader) &&
-                authHeader.startsWith(BEARER_PREFIX) &&
-                authHeader.length() > BEARER_PREFIX.length();
+    private AuthUser fromClaims(JwtService.JwtTokenInfo tokenInfo) {
+        Set<GrantedAuthority> authorities = tokenInfo.authorities()
+                .stream()
+                .map(roleCatalog::authorityOf)
+                .collect(Collectors.toUnmodifiableSet());
+        // 无状态模式下没有密码哈希和邮箱，令牌已证明身份
+        return new AuthUser(tokenInfo.userId(), tokenInfo.username(), null, null,
+                true, tokenInfo.accountVersion(), null, authorities);
     }
 
 }
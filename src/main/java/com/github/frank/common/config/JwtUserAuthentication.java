@@ -0,0 +1,56 @@
+package com.github.frank.common.config;
+
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+
+/**
+ * JwtAuthenticationFilter 设置到安全上下文中的认证结果：凭证为原始 JWT（注销时使用）。
+ * WebAuthenticationDetails 在首次读取时才构建；绝大多数请求没有代码读取它，不必为每个请求创建。
+ * 客户端地址在构造时取出，不持有请求对象：认证结果可能在请求结束后被异步任务读取，而请求对象会被容器回收复用。
+ *
+ * @author Frank An
+ */
+class JwtUserAuthentication extends AbstractAuthenticationToken {
+
+    private final UserDetails principal;
+    private final String token;
+    private final String remoteAddress;
+
+    JwtUserAuthentication(UserDetails principal, String token, String remoteAddress) {
+        super(principal.getAuthorities());
+        this.principal = principal;
+        this.token = token;
+        this.remoteAddress = remoteAddress;
+        super.setAuthenticated(true);
+    }
+
+    @Override
+    public Object getPrincipal() {
+        return principal;
+    }
+
+    @Override
+    public Object getCredentials() {
+        return token;
+    }
+
+    @Override
+    public Object getDetails() {
+        var details = super.getDetails();
+        if (details == null) {
+            // 无状态会话，sessionId 始终为空
+            details = new WebAuthenticationDetails(remoteAddress, null);
+            setDetails(details);
+        }
+        return details;
+    }
+
+    @Override
+    public void setAuthenticated(boolean authenticated) {
+        if (authenticated) {
+            throw new IllegalArgumentException("Cannot mark a token as trusted after creation");
+        }
+        super.setAuthenticated(false);
+    }
+}
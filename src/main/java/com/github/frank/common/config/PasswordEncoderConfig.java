@@ -0,0 +1,117 @@
+package com.github.frank.common.config;
+
+import com.github.frank.common.metrics.AuthMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * 密码编码器配置。使用 DelegatingPasswordEncoder，哈希带 {id} 前缀，可在不重置密码的情况下切换算法或调整成本；
+ * 成本低于当前配置的哈希会在下次登录成功时自动重新哈希。
+ *
+ * @author Frank An
+ */
+@Slf4j
+@Configuration
+public class PasswordEncoderConfig {
+
+    static final String BCRYPT = "bcrypt";
+    static final String ARGON2 = "argon2";
+
+    private static final int ARGON2_SALT_LENGTH = 16;
+    private static final int ARGON2_HASH_LENGTH = 32;
+    // 导入预哈希密码时也以此为 p 的上限
+    public static final int ARGON2_PARALLELISM = 1;
+    private static final String CALIBRATION_PASSWORD = "calibration-password";
+
+    @Bean
+    public PasswordEncoder passwordEncoder(
+            @Value("${auth.password-encoder.id:bcrypt}") String encodingId,
+            @Value("${auth.password-encoder.bcrypt-strength:10}") int bcryptStrength,
+            @Value("${auth.password-encoder.argon2-memory-kib:16384}") int argon2MemoryKib,
+            @Value("${auth.password-encoder.argon2-iterations:2}") int argon2Iterations,
+            @Value("${auth.password-encoder.calibration.enabled:false}") boolean calibrate,
+            @Value("${auth.password-encoder.calibration.target:50ms}") Duration calibrationTarget,
+            AuthMetrics authMetrics) {
+        if (calibrate) {
+            if (BCRYPT.equals(encodingId)) {
+                bcryptStrength = calibrateBcrypt(bcryptStrength, calibrationTarget);
+            } else if (ARGON2.equals(encodingId)) {
+                argon2Iterations = calibrateArgon2(argon2MemoryKib, argon2Iterations, calibrationTarget);
+            }
+        }
+
+        Map<String, PasswordEncoder> encoders = Map.of(
+                BCRYPT, new BCryptPasswordEncoder(bcryptStrength),
+                ARGON2, argon2(argon2MemoryKib, argon2Iterations));
+        if (!encoders.containsKey(encodingId)) {
+            throw new IllegalStateException("Unsupported password encoder id: " + encodingId);
+        }
+
+        var passwordEncoder = new DelegatingPasswordEncoder(encodingId, encoders);
+        // 兼容 V1 时期写入的无前缀 bcrypt 哈希
+        passwordEncoder.setDefaultPasswordEncoderForMatches(encoders.get(BCRYPT));
+        log.info("Password encoder: {} (bcrypt strength {}, argon2 memory {} KiB, iterations {})",
+                encodingId, bcryptStrength, argon2MemoryKib, argon2Iterations);
+        return new TimedPasswordEncoder(passwordEncoder, authMetrics);
+    }
+
+    /**
+     * 从最低强度开始递增，选出单次哈希耗时不超过目标的最高强度，但不低于配置的强度
+     */
+    static int calibrateBcrypt(int minimumStrength, Duration target) {
+        int chosen = minimumStrength;
+        for (int strength = minimumStrength; strength <= 31; strength++) {
+            var elapsed = measure(new BCryptPasswordEncoder(strength));
+            if (elapsed.compareTo(target) > 0) {
+                break;
+            }
+            chosen = strength;
+        }
+        log.info("Calibrated bcrypt strength {} for target {}", chosen, target);
+        return chosen;
+    }
+
+    /**
+     * 内存固定，递增迭代次数，选出耗时不超过目标的最高迭代次数，但不低于配置值
+     */
+    static int calibrateArgon2(int memoryKib, int minimumIterations, Duration target) {
+        int chosen = minimumIterations;
+        for (int iterations = minimumIterations; iterations <= 64; iterations++) {
+            var elapsed = measure(argon2(memoryKib, iterations));
+            if (elapsed.compareTo(target) > 0) {
+                break;
+            }
+            chosen = iterations;
+        }
+        log.info("Calibrated argon2 iterations {} ({} KiB) for target {}", chosen, memoryKib, target);
+        return chosen;
+    }
+
+    private static Argon2PasswordEncoder argon2(int memoryKib, int iterations) {
+        return new Argon2PasswordEncoder(ARGON2_SALT_LENGTH, ARGON2_HASH_LENGTH, ARGON2_PARALLELISM,
+                memoryKib, iterations);
+    }
+
+    /**
+     * 预热一次后取三次中的最小值，减少 JIT 和调度噪声
+     */
+    private static Duration measure(PasswordEncoder encoder) {
+        encoder.encode(CALIBRATION_PASSWORD);
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            encoder.encode(CALIBRATION_PASSWORD);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return Duration.ofNanos(best);
+    }
+}
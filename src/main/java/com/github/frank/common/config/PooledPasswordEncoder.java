@@ -0,0 +1,37 @@
+package com.github.frank.common.config;
+
+import com.github.frank.auth.service.PasswordHashingExecutor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * 把哈希计算提交到 {@link PasswordHashingExecutor} 的密码编码器装饰器，只用于登录的 DaoAuthenticationProvider：
+ * 查询用户在调用线程完成，只有 matches（以及哈希升级时的 encode）占用哈希线程。
+ * 注册等已自行提交到线程池的调用方应直接使用 PasswordEncoder bean，避免在哈希线程中再次提交。
+ *
+ * @author Frank An
+ */
+class PooledPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final PasswordHashingExecutor executor;
+
+    PooledPasswordEncoder(PasswordEncoder delegate, PasswordHashingExecutor executor) {
+        this.delegate = delegate;
+        this.executor = executor;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return executor.execute(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return executor.execute(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
@@ -0,0 +1,74 @@
+package com.github.frank.common.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 无需认证的路由，SecurityConfig 的 permitAll 与 JwtAuthenticationFilter 的跳过判断共用同一份列表。
+ * 模式只有两种：精确路径和以 "/**" 结尾的前缀，启动时预编译为哈希集合与前缀数组，匹配时不分配对象。
+ *
+ * @author Frank An
+ */
+final class PublicRoutes {
+
+    private static final String[] PATTERNS = {
+            "/api/v1/auth/login",
+            "/api/v1/auth/register",
+            "/api/v1/auth/refresh",
+            "/.well-known/jwks.json",
+            "/actuator/health",
+            "/swagger-ui/**",
+            "/v3/api-docs/**",
+            "/",
+            "/login",
+            "/register",
+            "/dashboard"
+    };
+
+    private static final String ANY_SUFFIX = "/**";
+    private static final Set<String> EXACT_PATHS;
+    private static final String[] PREFIXES;
+
+    static {
+        var exactPaths = new HashSet<String>();
+        var prefixes = new ArrayList<String>();
+        for (var pattern : PATTERNS) {
+            if (pattern.endsWith(ANY_SUFFIX)) {
+                // 与 Spring 的 PathPattern 一致，"/a/**" 同时匹配 "/a"
+                var base = pattern.substring(0, pattern.length() - ANY_SUFFIX.length());
+                exactPaths.add(base);
+                prefixes.add(base + "/");
+            } else {
+                exactPaths.add(pattern);
+            }
+        }
+        EXACT_PATHS = Set.copyOf(exactPaths);
+        PREFIXES = prefixes.toArray(String[]::new);
+    }
+
+    private PublicRoutes() {
+    }
+
+    static boolean matches(HttpServletRequest request) {
+        return matches(request.getRequestURI());
+    }
+
+    static boolean matches(String path) {
+        if (EXACT_PATHS.contains(path)) {
+            return true;
+        }
+        for (var prefix : PREFIXES) {
+            if (path.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static String[] patterns() {
+        return PATTERNS.clone();
+    }
+}
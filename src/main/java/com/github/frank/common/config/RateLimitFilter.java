@@ -0,0 +1,147 @@
+package com.github.frank.common.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.frank.common.exception.ErrorCode;
+import com.github.frank.common.exception.ErrorResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 登录与注册限流，位于 JwtAuthenticationFilter 之前：被拒绝的请求不会到达 AuthenticationManager，也不会触发密码哈希。
+ * 登录按客户端 IP 和用户名分别限流，注册按客户端 IP 限流；超限返回 429 和 Retry-After。
+ * 客户端 IP 取 getRemoteAddr()，部署在代理之后时需配置 server.forward-headers-strategy。
+ *
+ * @author Frank An
+ */
+@Slf4j
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String LOGIN_PATH = "/api/v1/auth/login";
+    private static final String REGISTER_PATH = "/api/v1/auth/register";
+    // 登录请求体只有用户名和密码，超过此长度不解析用户名，只按 IP 限流
+    private static final int MAX_INSPECTED_BODY = 4096;
+
+    private final boolean enabled;
+    private final TokenBucketRateLimiter loginByIp;
+    private final TokenBucketRateLimiter loginByUsername;
+    private final TokenBucketRateLimiter registerByIp;
+    private final ObjectMapper objectMapper;
+    private final Counter rejectedByIp;
+    private final Counter rejectedByUsername;
+
+    public RateLimitFilter(ObjectMapper objectMapper,
+                           MeterRegistry meterRegistry,
+                           @Value("${auth.rate-limit.enabled:true}") boolean enabled,
+                           @Value("${auth.rate-limit.login.per-ip.permits-per-minute:60}") int loginIpRate,
+                           @Value("${auth.rate-limit.login.per-ip.burst:20}") int loginIpBurst,
+                           @Value("${auth.rate-limit.login.per-username.permits-per-minute:10}") int loginUsernameRate,
+                           @Value("${auth.rate-limit.login.per-username.burst:5}") int loginUsernameBurst,
+                           @Value("${auth.rate-limit.register.per-ip.permits-per-minute:10}") int registerIpRate,
+                           @Value("${auth.rate-limit.register.per-ip.burst:5}") int registerIpBurst,
+                           @Value("${auth.rate-limit.max-keys:100000}") int maxKeys,
+                           @Value("${auth.rate-limit.overflow-stripes:4096}") int overflowStripes) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.loginByIp = new TokenBucketRateLimiter(loginIpRate, loginIpBurst, maxKeys, overflowStripes);
+        this.loginByUsername = new TokenBucketRateLimiter(loginUsernameRate, loginUsernameBurst, maxKeys, overflowStripes);
+        this.registerByIp = new TokenBucketRateLimiter(registerIpRate, registerIpBurst, maxKeys, overflowStripes);
+        this.rejectedByIp = Counter.builder("auth.rate-limit.rejected").tag("key", "ip").register(meterRegistry);
+        this.rejectedByUsername = Counter.builder("auth.rate-limit.rejected").tag("key", "username").register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        if (!enabled || !HttpMethod.POST.matches(request.getMethod())) {
+            return true;
+        }
+        var path = request.getRequestURI();
+        return !LOGIN_PATH.equals(path) && !REGISTER_PATH.equals(path);
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        var clientIp = request.getRemoteAddr();
+        if (REGISTER_PATH.equals(request.getRequestURI())) {
+            long waitNanos = registerByIp.tryAcquire(clientIp);
+            if (waitNanos > 0) {
+                reject(request, response, waitNanos, rejectedByIp);
+                return;
+            }
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long waitNanos = loginByIp.tryAcquire(clientIp);
+        if (waitNanos > 0) {
+            reject(request, response, waitNanos, rejectedByIp);
+            return;
+        }
+        var cachedRequest = new CachedBodyHttpServletRequest(request, MAX_INSPECTED_BODY);
+        var username = readUsername(cachedRequest);
+        if (username != null) {
+            waitNanos = loginByUsername.tryAcquire(username);
+            if (waitNanos > 0) {
+                log.debug("Login rate limit exceeded for user {}", username);
+                reject(request, response, waitNanos, rejectedByUsername);
+                return;
+            }
+        }
+        filterChain.doFilter(cachedRequest, response);
+    }
+
+    /**
+     * 定期回收空闲（已回满）的桶
+     */
+    @Scheduled(fixedDelayString = "${auth.rate-limit.sweep-interval:PT1M}")
+    public void evictIdle() {
+        int evicted = loginByIp.evictIdle() + loginByUsername.evictIdle() + registerByIp.evictIdle();
+        if (evicted > 0) {
+            log.debug("Evicted {} idle rate limit buckets", evicted);
+        }
+    }
+
+    private String readUsername(CachedBodyHttpServletRequest request) {
+        var body = request.body();
+        if (body == null || body.length == 0) {
+            return null;
+        }
+        try {
+            var username = objectMapper.readTree(body).path("username");
+            return username.isTextual() ? username.asText().toLowerCase(Locale.ROOT) : null;
+        } catch (IOException e) {
+            // 格式错误的请求体交给后续的参数校验处理
+            return null;
+        }
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, long waitNanos,
+                        Counter counter) throws IOException {
+        counter.increment();
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        response.setStatus(ErrorCode.TOO_MANY_REQUESTS.getStatus().value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                ErrorResponse.of(ErrorCode.TOO_MANY_REQUESTS, request.getRequestURI()));
+    }
+}
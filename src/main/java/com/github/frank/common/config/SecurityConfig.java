@@ -1,19 +1,27 @@
 package com.github.frank.common.config;
 
+import com.github.frank.auth.service.CustomUserDetailsService;
+import com.github.frank.auth.service.PasswordHashingExecutor;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.security.servlet.PathRequest;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.web.context.support.WebApplicationContextUtils;
 
 /**
  * @author Frank An
@@ -25,7 +33,50 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 @RequiredArgsConstructor
 public class SecurityConfig {
 
+    // management.server.port 与应用端口不同时，Actuator 运行在该命名空间的子上下文中
+    private static final String MANAGEMENT_SERVER_NAMESPACE = "management";
+
     private final JwtAuthenticationFilter jwtAuthFilter;
+    private final RateLimitFilter rateLimitFilter;
+
+    /**
+     * 静态资源单独一条过滤器链：不经过限流、JWT 认证、安全上下文与请求缓存等过滤器
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain staticResourcesFilterChain(HttpSecurity http) throws Exception {
+        return http
+                .securityMatcher(PathRequest.toStaticResources().atCommonLocations())
+                .authorizeHttpRequests(auth -> auth.anyRequest().permitAll())
+                .csrf(AbstractHttpConfigurer::disable)
+                .requestCache(AbstractHttpConfigurer::disable)
+                .securityContext(AbstractHttpConfigurer::disable)
+                .sessionManagement(AbstractHttpConfigurer::disable)
+                .anonymous(AbstractHttpConfigurer::disable)
+                .headers(AbstractHttpConfigurer::disable)
+                .build();
+    }
+
+    /**
+     * 管理端口（management.server.port，只应对内网开放）上的 Actuator：health 与 prometheus 供探针和抓取无需认证，
+     * 其余端点需要 ADMIN。应用端口上不存在 Actuator 端点，prometheus 在那里不会公开
+     */
+    @Bean
+    @Order(2)
+    public SecurityFilterChain managementFilterChain(HttpSecurity http) throws Exception {
+        return http
+                .securityMatcher(SecurityConfig::isManagementRequest)
+                .csrf(AbstractHttpConfigurer::disable)
+                .sessionManagement(session -> session
+                        .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
+                )
+                .authorizeHttpRequests(auth -> auth
+                        .requestMatchers("/actuator/health", "/actuator/health/**", "/actuator/prometheus").permitAll()
+                        .anyRequest().hasRole("ADMIN")
+                )
+                .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
+                .build();
+    }
 
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
@@ -35,27 +86,52 @@ public class SecurityConfig {
                         .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
                 )
                 .authorizeHttpRequests(auth -> auth
-                        // 公开接口
-                        .requestMatchers(
-                                "/api/v1/auth/login",
-                                "/api/v1/auth/register",
-                                "/swagger-ui/**",
-                                "/v3/api-docs/**",
-                                "/",
-                                "/login",
-                                "/register",
-                                "/dashboard"
-                        ).permitAll()
+                        // 公开接口，JwtAuthenticationFilter 对这些路由不做任何令牌处理
+                        .requestMatchers(PublicRoutes.patterns()).permitAll()
                         // 所有其他请求需要认证
                         .anyRequest().authenticated()
                 )
                 .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
+                // 限流在认证之前，被拒绝的请求不会触发密码哈希
+                .addFilterBefore(rateLimitFilter, JwtAuthenticationFilter.class)
                 .build();
     }
 
+    private static boolean isManagementRequest(HttpServletRequest request) {
+        var context = WebApplicationContextUtils.getWebApplicationContext(request.getServletContext());
+        return WebServerApplicationContext.hasServerNamespace(context, MANAGEMENT_SERVER_NAMESPACE);
+    }
+
+    /**
+     * 两个过滤器都是 @Component，Spring Boot 默认还会把它们注册为 Servlet 过滤器，对所有请求（包括静态资源）再执行一次；
+     * 它们只应在安全过滤器链中运行
+     */
+    @Bean
+    public FilterRegistrationBean<JwtAuthenticationFilter> jwtAuthenticationFilterRegistration(JwtAuthenticationFilter filter) {
+        var registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration(RateLimitFilter filter) {
+        var registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
+    /**
+     * 登录使用的认证提供者：用户加载在请求线程，只有密码校验进入哈希线程池，
+     * auth.password.hash 计时因此不包含查库耗时
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public DaoAuthenticationProvider authenticationProvider(CustomUserDetailsService userDetailsService,
+                                                           PasswordEncoder passwordEncoder,
+                                                           PasswordHashingExecutor passwordHashingExecutor) {
+        var provider = new DaoAuthenticationProvider(new PooledPasswordEncoder(passwordEncoder, passwordHashingExecutor));
+        provider.setUserDetailsService(userDetailsService);
+        provider.setUserDetailsPasswordService(userDetailsService);
+        return provider;
     }
 
     @Bean
@@ -0,0 +1,45 @@
+package com.github.frank.common.config;
+
+import com.github.frank.common.metrics.AuthMetrics;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * 记录 encode / matches 耗时的密码编码器装饰器，把登录耗时中的哈希部分与查库部分区分开
+ *
+ * @author Frank An
+ */
+class TimedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final AuthMetrics authMetrics;
+
+    TimedPasswordEncoder(PasswordEncoder delegate, AuthMetrics authMetrics) {
+        this.delegate = delegate;
+        this.authMetrics = authMetrics;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        long start = System.nanoTime();
+        try {
+            return delegate.encode(rawPassword);
+        } finally {
+            authMetrics.recordPasswordEncode(start);
+        }
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        long start = System.nanoTime();
+        try {
+            return delegate.matches(rawPassword, encodedPassword);
+        } finally {
+            authMetrics.recordPasswordMatches(start);
+        }
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
@@ -0,0 +1,97 @@
+package com.github.frank.common.config;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 无锁令牌桶（GCRA 形式）：每个键只保存一个“理论到达时间” long，一次 CAS 完成取令牌，无需后台补充线程。
+ * <p>
+ * 内存有界：精确桶最多 maxKeys 个，超出后新键按哈希落入固定大小的共享条带，共享同一条带的键合并限流，
+ * 只会更严格不会放宽。理论到达时间早于当前时间的桶等同于满桶，由 {@link #evictIdle()} 回收。
+ *
+ * @author Frank An
+ */
+final class TokenBucketRateLimiter {
+
+    private final long emissionIntervalNanos;
+    private final long burstNanos;
+    private final int maxKeys;
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicLongArray overflow;
+    private final int overflowMask;
+    // 以构造时刻为原点，保证时间为非负数，初始值 0 即表示满桶
+    private final long origin = System.nanoTime();
+
+    TokenBucketRateLimiter(int permitsPerMinute, int burst, int maxKeys, int overflowStripes) {
+        this.emissionIntervalNanos = Duration.ofMinutes(1).toNanos() / permitsPerMinute;
+        this.burstNanos = emissionIntervalNanos * burst;
+        this.maxKeys = maxKeys;
+        int stripes = Integer.highestOneBit(Math.max(1, overflowStripes - 1)) << 1;
+        this.overflow = new AtomicLongArray(stripes);
+        this.overflowMask = stripes - 1;
+    }
+
+    /**
+     * 尝试取一个令牌，成功返回 0，否则返回需要等待的纳秒数
+     */
+    long tryAcquire(String key) {
+        return tryAcquire(key, System.nanoTime() - origin);
+    }
+
+    /**
+     * now 为相对构造时刻的纳秒数
+     */
+    long tryAcquire(String key, long now) {
+        var bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= maxKeys) {
+                return tryAcquireOverflow(spread(key.hashCode()) & overflowMask, now);
+            }
+            bucket = buckets.computeIfAbsent(key, k -> new AtomicLong());
+        }
+        while (true) {
+            long tat = bucket.get();
+            long newTat = Math.max(tat, now) + emissionIntervalNanos;
+            long allowAt = newTat - burstNanos;
+            if (allowAt > now) {
+                return allowAt - now;
+            }
+            if (bucket.compareAndSet(tat, newTat)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * 移除已回满的桶，返回移除数量
+     */
+    int evictIdle() {
+        return evictIdle(System.nanoTime() - origin);
+    }
+
+    int evictIdle(long now) {
+        int before = buckets.size();
+        buckets.values().removeIf(bucket -> bucket.get() <= now);
+        return before - buckets.size();
+    }
+
+    private long tryAcquireOverflow(int slot, long now) {
+        while (true) {
+            long tat = overflow.get(slot);
+            long newTat = Math.max(tat, now) + emissionIntervalNanos;
+            long allowAt = newTat - burstNanos;
+            if (allowAt > now) {
+                return allowAt - now;
+            }
+            if (overflow.compareAndSet(slot, tat, newTat)) {
+                return 0;
+            }
+        }
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
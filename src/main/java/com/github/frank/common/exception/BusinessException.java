@@ -1,14 +1,30 @@
 package com.github.frank.common.exception;
 
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
 /**
  * @author Frank An
  */
+@Getter
 public final class BusinessException extends BaseException {
+    private final HttpStatus status;
+    // 大于 0 时响应携带 Retry-After 头（秒）
+    private final long retryAfterSeconds;
+
     public BusinessException(String message, String code) {
         super(message, code);
+        this.status = HttpStatus.BAD_REQUEST;
+        this.retryAfterSeconds = 0;
     }
 
     public BusinessException(ErrorCode errorCode) {
+        this(errorCode, 0);
+    }
+
+    public BusinessException(ErrorCode errorCode, long retryAfterSeconds) {
         super(errorCode.getMessage(), errorCode.getCode());
+        this.status = errorCode.getStatus();
+        this.retryAfterSeconds = retryAfterSeconds;
     }
 }
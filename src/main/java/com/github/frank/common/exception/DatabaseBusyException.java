@@ -0,0 +1,15 @@
+package com.github.frank.common.exception;
+
+import java.sql.SQLTransientConnectionException;
+
+/**
+ * 等待数据库并发许可超时。经 Spring 包装（CannotCreateTransactionException、DataAccessResourceFailureException 等）后
+ * 由 {@link GlobalExceptionHandler} 识别并映射为 {@link ErrorCode#SERVICE_BUSY}
+ *
+ * @author Frank An
+ */
+public class DatabaseBusyException extends SQLTransientConnectionException {
+    public DatabaseBusyException(String message) {
+        super(message);
+    }
+}
@@ -1,6 +1,7 @@
 package com.github.frank.common.exception;
 
 import lombok.Getter;
+import org.springframework.http.HttpStatus;
 
 /**
  * @author Frank An
@@ -13,6 +14,11 @@ public enum ErrorCode {
     INVALID_CREDENTIALS("1002", "Invalid username or password"),
     TOKEN_EXPIRED("1003", "Token has expired"),
     INVALID_TOKEN("1004", "Invalid token"),
+    INVALID_REFRESH_TOKEN("1005", "Invalid refresh token"),
+    REFRESH_TOKEN_REUSED("1006", "Refresh token has already been used"),
+    CLIENT_ALREADY_EXISTS("1007", "Client already exists"),
+    INTROSPECTION_BATCH_TOO_LARGE("1008", "Too many tokens in one introspection request"),
+    ACCOUNT_LOCKED("1009", "Account is temporarily locked due to repeated login failures", HttpStatus.LOCKED),
 
     // 用户相关错误 (2000-2999)
     USER_NOT_FOUND("2000", "User not found"),
@@ -25,14 +31,22 @@ public enum ErrorCode {
     // 系统错误 (9000-9999)
     SYSTEM_ERROR("9000", "System error"),
     INVALID_REQUEST("9001", "Invalid request"),
-    DATABASE_ERROR("9002", "Database error");;
+    DATABASE_ERROR("9002", "Database error"),
+    SERVICE_BUSY("9003", "Service is busy, please retry later", HttpStatus.SERVICE_UNAVAILABLE),
+    TOO_MANY_REQUESTS("9004", "Too many requests, please retry later", HttpStatus.TOO_MANY_REQUESTS);
 
     private final String message;
     private final String code;
+    private final HttpStatus status;
 
     ErrorCode(String code, String message) {
+        this(code, message, HttpStatus.BAD_REQUEST);
+    }
+
+    ErrorCode(String code, String message, HttpStatus status) {
         this.code = code;
         this.message = message;
+        this.status = status;
     }
 
 }
@@ -1,12 +1,17 @@
 package com.github.frank.common.exception;
 
+import com.github.frank.common.metrics.AuthMetrics;
 import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.AuthenticationException;
+import org.springframework.transaction.TransactionException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -20,20 +25,28 @@ import java.util.stream.Collectors;
 
 @Slf4j
 @RestControllerAdvice
+@RequiredArgsConstructor
 public class GlobalExceptionHandler {
 
+    private static final long DATABASE_BUSY_RETRY_AFTER_SECONDS = 1;
+
+    private final AuthMetrics authMetrics;
+
     @ExceptionHandler(BusinessException.class)
     public ResponseEntity<ErrorResponse> handleBusinessException(BusinessException ex, HttpServletRequest request) {
         log.warn("Business exception: {}", ex.getMessage());
-        return new ResponseEntity<>(
-                ErrorResponse.of(ex.getCode(), ex.getMessage(), request.getRequestURI()),
-                HttpStatus.BAD_REQUEST
-        );
+        authMetrics.countError(ex.getCode());
+        var response = ResponseEntity.status(ex.getStatus());
+        if (ex.getRetryAfterSeconds() > 0) {
+            response.header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()));
+        }
+        return response.body(ErrorResponse.of(ex.getCode(), ex.getMessage(), request.getRequestURI()));
     }
 
     @ExceptionHandler(TechnicalException.class)
     public ResponseEntity<ErrorResponse> handleTechnicalException(TechnicalException ex, HttpServletRequest request) {
         log.error("Technical exception: {}", ex.getMessage(), ex);
+        authMetrics.countError(ex.getCode());
         return new ResponseEntity<>(
                 ErrorResponse.of(ex.getCode(), ex.getMessage(), request.getRequestURI()),
                 HttpStatus.INTERNAL_SERVER_ERROR
@@ -47,6 +60,7 @@ public class GlobalExceptionHandler {
                 .stream()
                 .map(FieldError::getDefaultMessage)
                 .collect(Collectors.joining(", "));
+        authMetrics.countError(ErrorCode.INVALID_REQUEST.getCode());
 
         return new ResponseEntity<>(
                 ErrorResponse.of(ErrorCode.INVALID_REQUEST.getCode(), message, request.getRequestURI()),
@@ -57,6 +71,7 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(ConstraintViolationException.class)
     public ResponseEntity<ErrorResponse> handleConstraintViolationException(
             ConstraintViolationException ex, HttpServletRequest request) {
+        authMetrics.countError(ErrorCode.INVALID_REQUEST.getCode());
         return new ResponseEntity<>(
                 ErrorResponse.of(
                         ErrorCode.INVALID_REQUEST.getCode(),
@@ -71,6 +86,7 @@ public class GlobalExceptionHandler {
     public ResponseEntity<ErrorResponse> handleAuthenticationException(
             AuthenticationException ex, HttpServletRequest request) {
         log.warn("Authentication exception: {}", ex.getMessage());
+        authMetrics.countError(ErrorCode.INVALID_CREDENTIALS.getCode());
         return new ResponseEntity<>(
                 ErrorResponse.of(
                         ErrorCode.INVALID_CREDENTIALS.getCode(),
@@ -85,6 +101,7 @@ public class GlobalExceptionHandler {
     public ResponseEntity<ErrorResponse> handleAccessDeniedException(
             AccessDeniedException ex, HttpServletRequest request) {
         log.warn("Access denied exception: {}", ex.getMessage());
+        authMetrics.countAccessDenied();
         return new ResponseEntity<>(
                 ErrorResponse.of(
                         "403",
@@ -95,10 +112,25 @@ public class GlobalExceptionHandler {
         );
     }
 
+    /**
+     * 数据库并发许可超时在到达这里之前已被 Spring 包装，按原因链识别；其他数据访问异常仍按 500 处理
+     */
+    @ExceptionHandler({DataAccessException.class, TransactionException.class})
+    public ResponseEntity<ErrorResponse> handleDataAccessException(Exception ex, HttpServletRequest request) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof DatabaseBusyException) {
+                return handleBusinessException(
+                        new BusinessException(ErrorCode.SERVICE_BUSY, DATABASE_BUSY_RETRY_AFTER_SECONDS), request);
+            }
+        }
+        return handleAllUncaughtException(ex, request);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleAllUncaughtException(
             Exception ex, HttpServletRequest request) {
         log.error("Uncaught exception: ", ex);
+        authMetrics.countError(ErrorCode.SYSTEM_ERROR.getCode());
         return new ResponseEntity<>(
                 ErrorResponse.of(
                         ErrorCode.SYSTEM_ERROR.getCode(),
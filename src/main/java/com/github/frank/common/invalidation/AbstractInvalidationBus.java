@@ -0,0 +1,73 @@
+package com.github.frank.common.invalidation;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * 订阅管理与批量投递；本节点发布的事件在事务提交后直接投递给本节点订阅者
+ *
+ * @author Frank An
+ */
+@Slf4j
+abstract class AbstractInvalidationBus implements InvalidationBus {
+
+    private final Map<InvalidationEvent.Type, List<Consumer<Set<String>>>> listeners =
+            new EnumMap<>(InvalidationEvent.Type.class);
+
+    AbstractInvalidationBus() {
+        for (var type : InvalidationEvent.Type.values()) {
+            listeners.put(type, new CopyOnWriteArrayList<>());
+        }
+    }
+
+    @Override
+    public void subscribe(InvalidationEvent.Type type, Consumer<Set<String>> listener) {
+        listeners.get(type).add(listener);
+    }
+
+    /**
+     * 在事务提交后执行，无事务时立即执行
+     */
+    static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * 按类型分组、键去重后投递；单个订阅者失败不影响其他订阅者
+     */
+    void deliver(Collection<InvalidationEvent> events) {
+        var keysByType = new EnumMap<InvalidationEvent.Type, Set<String>>(InvalidationEvent.Type.class);
+        for (var event : events) {
+            keysByType.computeIfAbsent(event.type(), type -> new LinkedHashSet<>()).add(event.key());
+        }
+        keysByType.forEach((type, keys) -> {
+            var batch = Set.copyOf(keys);
+            for (var listener : listeners.get(type)) {
+                try {
+                    listener.accept(batch);
+                } catch (RuntimeException e) {
+                    log.error("Invalidation listener for {} failed", type, e);
+                }
+            }
+        });
+    }
+}
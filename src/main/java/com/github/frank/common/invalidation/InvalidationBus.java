@@ -0,0 +1,23 @@
+package com.github.frank.common.invalidation;
+
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * 节点间的缓存失效总线。各节点可以放心地在进程内缓存，变更发生后在有界延迟内收敛。
+ * 由 auth.invalidation.bus 选择实现：local（单节点/测试，进程内回环）或 jdbc（轮询 invalidation_events 表）。
+ *
+ * @author Frank An
+ */
+public interface InvalidationBus {
+
+    /**
+     * 发布事件。处于事务中时随事务提交后才投递，回滚则丢弃；本节点的订阅者同样会收到
+     */
+    void publish(InvalidationEvent.Type type, String key);
+
+    /**
+     * 订阅某类事件。同一批次内的键去重后一次投递，订阅者应当幂等
+     */
+    void subscribe(InvalidationEvent.Type type, Consumer<Set<String>> listener);
+}
@@ -0,0 +1,24 @@
+package com.github.frank.common.invalidation;
+
+/**
+ * 失效事件：只说明“哪类数据的哪个键变了”，不携带新值，接收方自行丢弃或重新加载
+ *
+ * @author Frank An
+ */
+public record InvalidationEvent(Type type, String key) {
+
+    public enum Type {
+        /**
+         * key 为用户名：用户缓存失效（资料、角色、锁定状态变更）
+         */
+        USER,
+        /**
+         * 角色目录需要重新加载，key 无意义
+         */
+        ROLES,
+        /**
+         * key 为 jti：访问令牌被撤销
+         */
+        TOKEN_REVOKED
+    }
+}
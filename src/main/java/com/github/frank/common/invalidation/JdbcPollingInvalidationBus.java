@@ -0,0 +1,137 @@
+package com.github.frank.common.invalidation;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * 基于 invalidation_events 表的失效总线，不需要额外的消息中间件。
+ * <p>
+ * 发布时在当前事务内插入一行（与业务变更同时提交），提交后立即投递给本节点；
+ * 其他节点每 poll-interval 按 id 增量拉取并批量投递，收敛延迟约为一个轮询周期。
+ * 自增 id 的提交顺序可能与分配顺序不同，因此 settle-window 内的行每次轮询都会重读，
+ * 已投递的 id 记录在内存中去重，只有早于该窗口的行才推进水位。行是否已稳定由数据库时钟判断
+ * （created_at 与 LOCALTIMESTAMP 比较），应用节点与数据库之间的时钟偏差不影响水位。
+ * <p>
+ * 限制：created_at 是插入时间而非提交时间。发布事件的事务若在插入后超过 settle-window 才提交，
+ * 水位可能已越过它的 id，其他节点会漏掉这条事件，只能等缓存 TTL 到期。settle-window 应大于最长的业务事务。
+ *
+ * @author Frank An
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "auth.invalidation.bus", havingValue = "jdbc")
+public class JdbcPollingInvalidationBus extends AbstractInvalidationBus {
+
+    private record Row(long id, InvalidationEvent event, String origin, boolean settled) {
+    }
+
+    private static final String INSERT_SQL =
+            "insert into invalidation_events (event_type, event_key, origin) values (?, ?, ?)";
+    // TIMESTAMPADD / LOCALTIMESTAMP 在 MySQL 与 H2（压测、测试）上语义相同
+    private static final String SELECT_SQL = """
+            select id, event_type, event_key, origin,
+                   created_at < timestampadd(microsecond, ?, localtimestamp(3)) as settled
+            from invalidation_events
+            where id > ? order by id limit ?""";
+    private static final String DELETE_EXPIRED_SQL =
+            "delete from invalidation_events where created_at < timestampadd(microsecond, ?, localtimestamp(3))";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration settleWindow;
+    private final Duration retention;
+    private final int pageSize;
+    private final String nodeId = UUID.randomUUID().toString();
+    // 以下状态只由轮询线程访问
+    private final Set<Long> delivered = new HashSet<>();
+    private long watermark;
+
+    public JdbcPollingInvalidationBus(JdbcTemplate jdbcTemplate,
+                                      @Value("${auth.invalidation.settle-window:10s}") Duration settleWindow,
+                                      @Value("${auth.invalidation.retention:1h}") Duration retention,
+                                      @Value("${auth.invalidation.page-size:500}") int pageSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.settleWindow = settleWindow;
+        this.retention = retention;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * 启动时本地缓存为空，无需重放历史事件，从当前最大 id 开始
+     */
+    @PostConstruct
+    public void init() {
+        var maxId = jdbcTemplate.queryForObject("select max(id) from invalidation_events", Long.class);
+        watermark = maxId != null ? maxId : 0;
+        log.info("Invalidation bus node {} starting after event {}", nodeId, watermark);
+    }
+
+    @Override
+    public void publish(InvalidationEvent.Type type, String key) {
+        jdbcTemplate.update(INSERT_SQL, type.name(), key, nodeId);
+        var event = new InvalidationEvent(type, key);
+        afterCommit(() -> deliver(List.of(event)));
+    }
+
+    @Scheduled(fixedDelayString = "${auth.invalidation.poll-interval:PT1S}")
+    public void poll() {
+        long settleOffset = -toMicros(settleWindow);
+        var batch = new ArrayList<InvalidationEvent>();
+        long cursor = watermark;
+        long newWatermark = watermark;
+        boolean settledPrefix = true;
+        while (true) {
+            var rows = jdbcTemplate.query(SELECT_SQL, (rs, rowNum) -> new Row(
+                    rs.getLong("id"),
+                    new InvalidationEvent(InvalidationEvent.Type.valueOf(rs.getString("event_type")),
+                            rs.getString("event_key")),
+                    rs.getString("origin"),
+                    rs.getBoolean("settled")), settleOffset, cursor, pageSize);
+            for (var row : rows) {
+                if (delivered.add(row.id()) && !nodeId.equals(row.origin())) {
+                    batch.add(row.event());
+                }
+                // 水位只推进到连续的已稳定前缀
+                settledPrefix = settledPrefix && row.settled();
+                if (settledPrefix) {
+                    newWatermark = row.id();
+                }
+            }
+            if (rows.size() < pageSize) {
+                break;
+            }
+            cursor = rows.get(rows.size() - 1).id();
+        }
+
+        final long advancedTo = newWatermark;
+        delivered.removeIf(id -> id <= advancedTo);
+        watermark = advancedTo;
+        if (!batch.isEmpty()) {
+            log.debug("Delivering {} invalidation events", batch.size());
+            deliver(batch);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${auth.invalidation.cleanup-interval:PT10M}")
+    public void deleteExpired() {
+        int deleted = jdbcTemplate.update(DELETE_EXPIRED_SQL, -toMicros(retention));
+        if (deleted > 0) {
+            log.debug("Deleted {} expired invalidation events", deleted);
+        }
+    }
+
+    private static long toMicros(Duration duration) {
+        return duration.toNanos() / 1_000;
+    }
+}
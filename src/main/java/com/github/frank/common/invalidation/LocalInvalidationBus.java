@@ -0,0 +1,22 @@
+package com.github.frank.common.invalidation;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 进程内回环实现：单节点部署和测试使用，事件只投递给本节点
+ *
+ * @author Frank An
+ */
+@Component
+@ConditionalOnProperty(name = "auth.invalidation.bus", havingValue = "local", matchIfMissing = true)
+public class LocalInvalidationBus extends AbstractInvalidationBus {
+
+    @Override
+    public void publish(InvalidationEvent.Type type, String key) {
+        var event = new InvalidationEvent(type, key);
+        afterCommit(() -> deliver(List.of(event)));
+    }
+}
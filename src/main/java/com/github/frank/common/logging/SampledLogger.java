@@ -0,0 +1,45 @@
+package com.github.frank.common.logging;
+
+import org.slf4j.Logger;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 限速日志：每个间隔内最多输出一条，其余只计数，并在下一条输出中附带被抑制的条数。
+ * 用于攻击者可以任意触发的日志（如伪造令牌），被抑制时只有一次 volatile 读和一次计数，不格式化、不分配。
+ *
+ * @author Frank An
+ */
+public final class SampledLogger {
+
+    private final Logger delegate;
+    private final long intervalNanos;
+    private final AtomicLong nextAllowedNanos;
+    private final LongAdder suppressed = new LongAdder();
+
+    public SampledLogger(Logger delegate, Duration interval) {
+        this.delegate = delegate;
+        this.intervalNanos = interval.toNanos();
+        this.nextAllowedNanos = new AtomicLong(System.nanoTime());
+    }
+
+    public void warn(String message, Object argument) {
+        if (!delegate.isWarnEnabled()) {
+            return;
+        }
+        long now = System.nanoTime();
+        long allowedAt = nextAllowedNanos.get();
+        if (now - allowedAt < 0 || !nextAllowedNanos.compareAndSet(allowedAt, now + intervalNanos)) {
+            suppressed.increment();
+            return;
+        }
+        long skipped = suppressed.sumThenReset();
+        if (skipped > 0) {
+            delegate.warn(message + " ({} similar messages suppressed)", argument, skipped);
+        } else {
+            delegate.warn(message, argument);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.github.frank.common.metrics;
+
+import com.github.frank.common.exception.ErrorCode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 认证链路的计时器与计数器。所有 Meter 在启动时按有限的标签组合预先注册，
+ * 请求路径上只做枚举/Map 查找和 {@code System.nanoTime()} 差值记录，不创建标签或 Meter 对象。
+ * 直方图桶由 management.metrics.distribution 按 "auth" 前缀统一开启。
+ *
+ * @author Frank An
+ */
+@Component
+public class AuthMetrics {
+
+    /**
+     * JwtAuthenticationFilter 的各个阶段
+     */
+    public enum FilterStage {
+        HEADER,
+        VERIFY,
+        REVOCATION,
+        USER_LOAD
+    }
+
+    /**
+     * JwtAuthenticationFilter 对单个请求的处理结果
+     */
+    public enum FilterOutcome {
+        // 未携带 Bearer 令牌
+        ANONYMOUS,
+        // 结构检查未通过，未进行验签
+        MALFORMED,
+        // 验签失败或已过期
+        INVALID,
+        REVOKED,
+        // 令牌签发后账号版本已递增（角色、状态或密码变更）
+        STALE,
+        AUTHENTICATED,
+        // 令牌有效但用户已不存在或已停用
+        ERROR
+    }
+
+    // 不对应任何 ErrorCode 的业务/技术异常（自定义 code）
+    private static final String OTHER_CODE = "other";
+
+    private final EnumMap<FilterStage, Timer> filterStages = new EnumMap<>(FilterStage.class);
+    private final EnumMap<FilterOutcome, Counter> filterOutcomes = new EnumMap<>(FilterOutcome.class);
+    private final Map<String, Counter> errorsByCode = new HashMap<>();
+    private final Counter otherErrors;
+    private final Counter accessDenied;
+    private final Timer userLoadFromDatabase;
+    private final Timer passwordMatches;
+    private final Timer passwordEncode;
+
+    public AuthMetrics(MeterRegistry meterRegistry) {
+        for (var stage : FilterStage.values()) {
+            filterStages.put(stage, Timer.builder("auth.filter.stage")
+                    .description("Time spent in each stage of JWT request authentication")
+                    .tag("stage", tagValue(stage))
+                    .register(meterRegistry));
+        }
+        for (var outcome : FilterOutcome.values()) {
+            filterOutcomes.put(outcome, Counter.builder("auth.filter.requests")
+                    .description("Requests seen by the JWT authentication filter, by outcome")
+                    .tag("outcome", tagValue(outcome))
+                    .register(meterRegistry));
+        }
+        for (var errorCode : ErrorCode.values()) {
+            errorsByCode.put(errorCode.getCode(), errorCounter(meterRegistry, errorCode.name()));
+        }
+        this.otherErrors = errorCounter(meterRegistry, OTHER_CODE);
+        this.accessDenied = errorCounter(meterRegistry, "ACCESS_DENIED");
+        this.userLoadFromDatabase = Timer.builder("auth.user.load")
+                .description("Time spent loading a user for authentication on a cache miss")
+                .tag("source", "db")
+                .register(meterRegistry);
+        this.passwordMatches = Timer.builder("auth.password.encoder")
+                .description("Time spent in the password encoder")
+                .tag("operation", "matches")
+                .register(meterRegistry);
+        this.passwordEncode = Timer.builder("auth.password.encoder")
+                .description("Time spent in the password encoder")
+                .tag("operation", "encode")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 记录从 startNanos 到现在的阶段耗时，返回当前时间，便于串联下一个阶段
+     */
+    public long recordStage(FilterStage stage, long startNanos) {
+        long now = System.nanoTime();
+        filterStages.get(stage).record(now - startNanos, TimeUnit.NANOSECONDS);
+        return now;
+    }
+
+    public void countFilterOutcome(FilterOutcome outcome) {
+        filterOutcomes.get(outcome).increment();
+    }
+
+    /**
+     * 按 ErrorCode 计数异常响应；code 不属于 ErrorCode 时计入 other
+     */
+    public void countError(String code) {
+        errorsByCode.getOrDefault(code, otherErrors).increment();
+    }
+
+    public void countAccessDenied() {
+        accessDenied.increment();
+    }
+
+    public void recordUserLoad(long startNanos) {
+        userLoadFromDatabase.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordPasswordMatches(long startNanos) {
+        passwordMatches.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordPasswordEncode(long startNanos) {
+        passwordEncode.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static Counter errorCounter(MeterRegistry meterRegistry, String code) {
+        return Counter.builder("auth.errors")
+                .description("Error responses returned by GlobalExceptionHandler, by error code")
+                .tag("code", code)
+                .register(meterRegistry);
+    }
+
+    private static String tagValue(Enum<?> value) {
+        return value.name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+}
@@ -0,0 +1,34 @@
+package com.github.frank.system.controller;
+
+import com.github.frank.common.invalidation.InvalidationBus;
+import com.github.frank.common.invalidation.InvalidationEvent;
+import com.github.frank.system.service.RoleCatalog;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * @author Frank An
+ */
+@RestController
+@RequestMapping("/api/v1/roles")
+@RequiredArgsConstructor
+public class RoleController {
+
+    private final RoleCatalog roleCatalog;
+    private final InvalidationBus invalidationBus;
+
+    /**
+     * 通知所有节点重新加载角色目录，本节点同步完成
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/refresh")
+    public Map<String, Integer> refresh() {
+        invalidationBus.publish(InvalidationEvent.Type.ROLES, "*");
+        return Map.of("roles", roleCatalog.size());
+    }
+}
@@ -1,11 +1,16 @@
 package com.github.frank.system.controller;
 
 import com.github.frank.system.dto.UserDTO;
+import com.github.frank.system.dto.UserRolesRequest;
+import com.github.frank.system.dto.UserStatusRequest;
 import com.github.frank.system.service.UserService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -31,4 +36,16 @@ public class UserController {
     public UserDTO getUser(@PathVariable Long id) {
         return userService.getUserById(id);
     }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @PutMapping("/{id}/status")
+    public UserDTO updateStatus(@PathVariable Long id, @Valid @RequestBody UserStatusRequest request) {
+        return userService.updateStatus(id, request.enabled());
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @PutMapping("/{id}/roles")
+    public UserDTO updateRoles(@PathVariable Long id, @Valid @RequestBody UserRolesRequest request) {
+        return userService.updateRoles(id, request.roles());
+    }
 }
\ No newline at end of file
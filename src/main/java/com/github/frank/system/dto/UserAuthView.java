@@ -0,0 +1,18 @@
+package com.github.frank.system.dto;
+
+import java.time.Instant;
+
+/**
+ * 认证投影：每个角色一行，roleName 为 null 表示用户没有角色
+ *
+ * @author Frank An
+ */
+public record UserAuthView(Long id,
+                           String username,
+                           String password,
+                           String email,
+                           boolean enabled,
+                           long accountVersion,
+                           Instant lockedUntil,
+                           String roleName) {
+}
@@ -0,0 +1,9 @@
+package com.github.frank.system.dto;
+
+/**
+ * 资料投影：只读取 id、用户名和邮箱
+ *
+ * @author Frank An
+ */
+public record UserProfileView(Long id, String username, String email) {
+}
@@ -0,0 +1,13 @@
+package com.github.frank.system.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.Set;
+
+/**
+ * @author Frank An
+ */
+public record UserRolesRequest(@NotEmpty(message = "Roles are required")
+                               Set<@NotBlank String> roles) {
+}
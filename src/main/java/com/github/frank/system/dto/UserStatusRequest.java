@@ -0,0 +1,10 @@
+package com.github.frank.system.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * @author Frank An
+ */
+public record UserStatusRequest(@NotNull(message = "Enabled is required")
+                                Boolean enabled) {
+}
@@ -1,14 +1,48 @@
 package com.github.frank.system.repository;
 
+import com.github.frank.system.dto.UserAuthView;
+import com.github.frank.system.dto.UserProfileView;
 import com.github.frank.system.entity.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
+    // 需要完整实体时显式指定取回角色
+    @EntityGraph(attributePaths = "roles")
     Optional<User> findByUsername(String username);
 
     boolean existsByUsername(String username);
 
     boolean existsByEmail(String email);
+
+    @Query("""
+            select new com.github.frank.system.dto.UserAuthView(
+                u.id, u.username, u.password, u.email, u.enabled, u.accountVersion, u.lockedUntil, r.name)
+            from User u left join u.roles r
+            where u.username = :username""")
+    List<UserAuthView> findAuthViewByUsername(@Param("username") String username);
+
+    @Query("select u.accountVersion from User u where u.username = :username")
+    Optional<Long> findAccountVersionByUsername(@Param("username") String username);
+
+    @Query("select new com.github.frank.system.dto.UserProfileView(u.id, u.username, u.email) from User u where u.username = :username")
+    Optional<UserProfileView> findProfileByUsername(@Param("username") String username);
+
+    @Query("select new com.github.frank.system.dto.UserProfileView(u.id, u.username, u.email) from User u where u.id = :id")
+    Optional<UserProfileView> findProfileById(@Param("id") Long id);
+
+    @Modifying
+    @Query("update User u set u.password = :password where u.username = :username")
+    int updatePassword(@Param("username") String username, @Param("password") String password);
+
+    @Modifying
+    @Query("update User u set u.lockedUntil = :lockedUntil where u.username = :username")
+    int updateLockedUntil(@Param("username") String username, @Param("lockedUntil") Instant lockedUntil);
 }
\ No newline at end of file
@@ -0,0 +1,91 @@
+package com.github.frank.system.service;
+
+import com.github.frank.common.exception.BusinessException;
+import com.github.frank.common.exception.ErrorCode;
+import com.github.frank.common.invalidation.InvalidationBus;
+import com.github.frank.common.invalidation.InvalidationEvent;
+import com.github.frank.system.entity.Role;
+import com.github.frank.system.repository.RoleRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 角色目录：roles 表很小且几乎不变，启动时整表加载为不可变快照，按 id 和名称索引，
+ * 定时刷新，或由管理员经失效总线通知所有节点刷新。GrantedAuthority 实例在快照内共享，不再每次请求新建。
+ *
+ * @author Frank An
+ */
+@Slf4j
+@Component
+public class RoleCatalog {
+
+    public record RoleEntry(Long id, String name, GrantedAuthority authority) {
+    }
+
+    private record Snapshot(Map<Long, RoleEntry> byId, Map<String, RoleEntry> byName) {
+    }
+
+    private final RoleRepository roleRepository;
+    private volatile Snapshot snapshot = new Snapshot(Map.of(), Map.of());
+
+    public RoleCatalog(RoleRepository roleRepository, InvalidationBus invalidationBus) {
+        this.roleRepository = roleRepository;
+        // 任一节点发布角色变更后所有节点重新加载
+        invalidationBus.subscribe(InvalidationEvent.Type.ROLES, ignored -> refresh());
+    }
+
+    @PostConstruct
+    public void load() {
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${auth.role-catalog.refresh-interval:PT5M}",
+            initialDelayString = "${auth.role-catalog.refresh-interval:PT5M}")
+    public int refresh() {
+        var byId = new HashMap<Long, RoleEntry>();
+        var byName = new HashMap<String, RoleEntry>();
+        for (Role role : roleRepository.findAll()) {
+            var entry = new RoleEntry(role.getId(), role.getName(), new SimpleGrantedAuthority(role.getName()));
+            byId.put(entry.id(), entry);
+            byName.put(entry.name(), entry);
+        }
+        snapshot = new Snapshot(Map.copyOf(byId), Map.copyOf(byName));
+        log.debug("Role catalog refreshed with {} roles", byId.size());
+        return byId.size();
+    }
+
+    public int size() {
+        return snapshot.byId().size();
+    }
+
+    public Optional<RoleEntry> findById(Long id) {
+        return Optional.ofNullable(snapshot.byId().get(id));
+    }
+
+    public Optional<RoleEntry> findByName(String name) {
+        return Optional.ofNullable(snapshot.byName().get(name));
+    }
+
+    public RoleEntry getByName(String name) {
+        return findByName(name).orElseThrow(() -> {
+            log.error("Role '{}' not found", name);
+            return new BusinessException(ErrorCode.ROLE_NOT_FOUND);
+        });
+    }
+
+    /**
+     * 返回共享的 GrantedAuthority；目录中尚未出现的角色（刷新前新增）退化为新建实例
+     */
+    public GrantedAuthority authorityOf(String name) {
+        var entry = snapshot.byName().get(name);
+        return entry != null ? entry.authority() : new SimpleGrantedAuthority(name);
+    }
+}
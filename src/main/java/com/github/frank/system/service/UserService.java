@@ -2,32 +2,107 @@ package com.github.frank.system.service;
 
 import com.github.frank.common.exception.BusinessException;
 import com.github.frank.common.exception.ErrorCode;
+import com.github.frank.common.invalidation.InvalidationBus;
+import com.github.frank.common.invalidation.InvalidationEvent;
 import com.github.frank.system.dto.UserDTO;
+import com.github.frank.system.entity.Role;
+import com.github.frank.system.entity.User;
+import com.github.frank.system.repository.RoleRepository;
 import com.github.frank.system.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+
 /**
  * @author Frank An
  */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class UserService {
     private final UserRepository userRepository;
+    private final RoleRepository roleRepository;
+    private final RoleCatalog roleCatalog;
+    private final InvalidationBus invalidationBus;
 
     @Transactional(readOnly = true)
     public UserDTO getUserByUsername(String name) {
-        return userRepository.findByUsername(name)
-                .map(user -> UserDTO.fromUser(user.getId(), user.getUsername(), user.getEmail()))
+        return userRepository.findProfileByUsername(name)
+                .map(profile -> UserDTO.fromUser(profile.id(), profile.username(), profile.email()))
                 .orElseThrow(() -> new BusinessException(ErrorCode.USER_NOT_FOUND));
     }
 
 
     @Transactional(readOnly = true)
     public UserDTO getUserById(Long id) {
-        return userRepository.findById(id)
-                .map(UserDTO::fromUser)
+        return userRepository.findProfileById(id)
+                .map(profile -> UserDTO.fromUser(profile.id(), profile.username(), profile.email()))
                 .orElseThrow(() -> new BusinessException(ErrorCode.USER_NOT_FOUND));
     }
+
+    /**
+     * 启用或停用用户。递增账号版本号，已签发的访问令牌在 claims-trusted 模式下同样失效
+     */
+    @Transactional
+    public UserDTO updateStatus(Long id, boolean enabled) {
+        var user = userRepository.findById(id).orElseThrow(() -> new BusinessException(ErrorCode.USER_NOT_FOUND));
+        user.setEnabled(enabled);
+        bumpAccountVersion(user);
+        log.info("User {} {}", user.getUsername(), enabled ? "enabled" : "disabled");
+        return UserDTO.fromUser(user);
+    }
+
+    /**
+     * 替换用户的全部角色。角色名从角色目录解析，不存在时抛出 ROLE_NOT_FOUND
+     */
+    @Transactional
+    public UserDTO updateRoles(Long id, Set<String> roleNames) {
+        var user = userRepository.findById(id).orElseThrow(() -> new BusinessException(ErrorCode.USER_NOT_FOUND));
+        var roles = new HashSet<Role>();
+        for (var roleName : roleNames) {
+            roles.add(roleRepository.getReferenceById(roleCatalog.getByName(roleName).id()));
+        }
+        user.getRoles().clear();
+        user.getRoles().addAll(roles);
+        bumpAccountVersion(user);
+        log.info("Roles of user {} changed to {}", user.getUsername(), roleNames);
+        return new UserDTO(user.getId(), user.getUsername(), user.getEmail(), Set.copyOf(roleNames), user.isEnabled());
+    }
+
+    /**
+     * 角色、状态、密码等安全相关变更必须调用：令牌中的 ver 小于当前版本即被拒绝，
+     * 各节点的用户缓存与账号版本缓存经失效总线在提交后失效
+     */
+    private void bumpAccountVersion(User user) {
+        user.setAccountVersion(user.getAccountVersion() + 1);
+        invalidationBus.publish(InvalidationEvent.Type.USER, user.getUsername());
+    }
+
+    /**
+     * 异步写入升级后的密码哈希，登录响应无需等待这次 UPDATE
+     */
+    @Async
+    @Transactional
+    public void upgradePasswordHash(String username, String encodedPassword) {
+        int updated = userRepository.updatePassword(username, encodedPassword);
+        log.debug("Upgraded password hash for user {} ({} row)", username, updated);
+    }
+
+    /**
+     * 异步写入锁定状态，lockedUntil 为 null 表示解锁；只在状态变化时调用
+     */
+    @Async
+    @Transactional
+    public void updateLockedUntil(String username, Instant lockedUntil) {
+        int updated = userRepository.updateLockedUntil(username, lockedUntil);
+        log.debug("Updated lock of user {} to {} ({} row)", username, lockedUntil, updated);
+        // 其他节点缓存的用户需重新加载锁定状态
+        invalidationBus.publish(InvalidationEvent.Type.USER, username);
+    }
 }
@@ -0,0 +1,3 @@
+-- 网关调用令牌内省接口所需的角色
+INSERT INTO roles (name, description)
+VALUES ('ROLE_GATEWAY', 'API gateway role for token introspection');
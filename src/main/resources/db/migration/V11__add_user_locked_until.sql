@@ -0,0 +1,3 @@
+-- 连续登录失败导致的临时锁定，只在加锁和解锁时写入
+ALTER TABLE users
+    ADD COLUMN locked_until TIMESTAMP NULL;
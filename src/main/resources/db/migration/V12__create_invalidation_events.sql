@@ -0,0 +1,11 @@
+-- 节点间缓存失效事件（auth.invalidation.bus=jdbc），保留 auth.invalidation.retention 后删除
+CREATE TABLE invalidation_events
+(
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    event_type VARCHAR(32)  NOT NULL,
+    event_key  VARCHAR(255) NOT NULL,
+    origin     VARCHAR(36)  NOT NULL,
+    created_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3)
+);
+
+CREATE INDEX idx_invalidation_events_created_at ON invalidation_events (created_at);
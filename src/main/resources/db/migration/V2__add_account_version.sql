@@ -0,0 +1,3 @@
+-- 账号版本号：角色、状态等安全相关变更时递增，写入 JWT 的 ver 声明
+ALTER TABLE users
+    ADD COLUMN account_version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,3 @@
+-- {argon2} 前缀的哈希超过 100 个字符
+ALTER TABLE users
+    MODIFY COLUMN password VARCHAR(255) NOT NULL;
@@ -0,0 +1,2 @@
+-- 资料查询 (id, username, email) 走覆盖索引，InnoDB 二级索引自带主键 id
+CREATE INDEX idx_users_username_email ON users (username, email);
@@ -0,0 +1,3 @@
+-- 注册直接依赖唯一约束判重；执行前需确认现有数据中没有重复邮箱
+ALTER TABLE users
+    ADD CONSTRAINT uk_users_email UNIQUE (email);
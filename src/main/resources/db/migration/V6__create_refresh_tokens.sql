@@ -0,0 +1,17 @@
+-- 刷新令牌只保存 SHA-256 摘要；同一次登录轮换出的令牌属于同一个 family
+CREATE TABLE refresh_tokens
+(
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    token_hash CHAR(64)  NOT NULL,
+    family_id  CHAR(36)  NOT NULL,
+    user_id    BIGINT    NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    used_at    TIMESTAMP NULL,
+    revoked    BOOLEAN   NOT NULL DEFAULT FALSE,
+    CONSTRAINT uk_refresh_tokens_hash UNIQUE (token_hash),
+    CONSTRAINT fk_refresh_tokens_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE INDEX idx_refresh_tokens_family ON refresh_tokens (family_id);
+CREATE INDEX idx_refresh_tokens_expires_at ON refresh_tokens (expires_at);
@@ -0,0 +1,12 @@
+-- 已撤销的访问令牌 (jti)，过期后即可删除；revoked_at 用于各节点增量同步
+CREATE TABLE revoked_tokens
+(
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    jti        VARCHAR(36)  NOT NULL,
+    expires_at TIMESTAMP    NOT NULL,
+    revoked_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    CONSTRAINT uk_revoked_tokens_jti UNIQUE (jti)
+);
+
+CREATE INDEX idx_revoked_tokens_revoked_at ON revoked_tokens (revoked_at);
+CREATE INDEX idx_revoked_tokens_expires_at ON revoked_tokens (expires_at);
@@ -0,0 +1,13 @@
+-- 非对称签名密钥环：最新已激活的密钥用于签名，被替换的密钥在访问令牌有效期内仍用于验签并继续出现在 JWKS 中。
+-- 私钥以 AES-GCM 加密存储 (PKCS#8)，公钥为 X.509 编码，均为 Base64。
+CREATE TABLE signing_keys
+(
+    kid          VARCHAR(64)  NOT NULL PRIMARY KEY,
+    algorithm    VARCHAR(16)  NOT NULL,
+    public_key   TEXT         NOT NULL,
+    private_key  TEXT         NOT NULL,
+    activates_at TIMESTAMP(3) NOT NULL,
+    created_at   TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3)
+);
+
+CREATE INDEX idx_signing_keys_activates_at ON signing_keys (activates_at);
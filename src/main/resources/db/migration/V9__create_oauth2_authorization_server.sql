@@ -0,0 +1,57 @@
+-- Spring Authorization Server 的 JDBC 存储 (oauth2-registered-client-schema.sql / oauth2-authorization-schema.sql 的 MySQL 版本)
+CREATE TABLE oauth2_registered_client
+(
+    id                            VARCHAR(100)                            NOT NULL PRIMARY KEY,
+    client_id                     VARCHAR(100)                            NOT NULL,
+    client_id_issued_at           TIMESTAMP     DEFAULT CURRENT_TIMESTAMP NOT NULL,
+    client_secret                 VARCHAR(200)  DEFAULT NULL,
+    client_secret_expires_at      TIMESTAMP     NULL DEFAULT NULL,
+    client_name                   VARCHAR(200)                            NOT NULL,
+    client_authentication_methods VARCHAR(1000)                           NOT NULL,
+    authorization_grant_types     VARCHAR(1000)                           NOT NULL,
+    redirect_uris                 VARCHAR(1000) DEFAULT NULL,
+    post_logout_redirect_uris     VARCHAR(1000) DEFAULT NULL,
+    scopes                        VARCHAR(1000)                           NOT NULL,
+    client_settings               VARCHAR(2000)                           NOT NULL,
+    token_settings                VARCHAR(2000)                           NOT NULL,
+    CONSTRAINT uk_oauth2_registered_client_client_id UNIQUE (client_id)
+);
+
+CREATE TABLE oauth2_authorization
+(
+    id                            VARCHAR(100) NOT NULL PRIMARY KEY,
+    registered_client_id          VARCHAR(100) NOT NULL,
+    principal_name                VARCHAR(200) NOT NULL,
+    authorization_grant_type      VARCHAR(100) NOT NULL,
+    authorized_scopes             VARCHAR(1000) DEFAULT NULL,
+    attributes                    BLOB          DEFAULT NULL,
+    state                         VARCHAR(500)  DEFAULT NULL,
+    authorization_code_value      BLOB          DEFAULT NULL,
+    authorization_code_issued_at  TIMESTAMP     NULL DEFAULT NULL,
+    authorization_code_expires_at TIMESTAMP     NULL DEFAULT NULL,
+    authorization_code_metadata   BLOB          DEFAULT NULL,
+    access_token_value            BLOB          DEFAULT NULL,
+    access_token_issued_at        TIMESTAMP     NULL DEFAULT NULL,
+    access_token_expires_at       TIMESTAMP     NULL DEFAULT NULL,
+    access_token_metadata         BLOB          DEFAULT NULL,
+    access_token_type             VARCHAR(100)  DEFAULT NULL,
+    access_token_scopes           VARCHAR(1000) DEFAULT NULL,
+    oidc_id_token_value           BLOB          DEFAULT NULL,
+    oidc_id_token_issued_at       TIMESTAMP     NULL DEFAULT NULL,
+    oidc_id_token_expires_at      TIMESTAMP     NULL DEFAULT NULL,
+    oidc_id_token_metadata        BLOB          DEFAULT NULL,
+    refresh_token_value           BLOB          DEFAULT NULL,
+    refresh_token_issued_at       TIMESTAMP     NULL DEFAULT NULL,
+    refresh_token_expires_at      TIMESTAMP     NULL DEFAULT NULL,
+    refresh_token_metadata        BLOB          DEFAULT NULL,
+    user_code_value               BLOB          DEFAULT NULL,
+    user_code_issued_at           TIMESTAMP     NULL DEFAULT NULL,
+    user_code_expires_at          TIMESTAMP     NULL DEFAULT NULL,
+    user_code_metadata            BLOB          DEFAULT NULL,
+    device_code_value             BLOB          DEFAULT NULL,
+    device_code_issued_at         TIMESTAMP     NULL DEFAULT NULL,
+    device_code_expires_at        TIMESTAMP     NULL DEFAULT NULL,
+    device_code_metadata          BLOB          DEFAULT NULL
+);
+
+CREATE INDEX idx_oauth2_authorization_client ON oauth2_authorization (registered_client_id);
@@ -0,0 +1,65 @@
+package com.github.frank.auth.service;
+
+import com.github.frank.common.invalidation.InvalidationEvent;
+import com.github.frank.common.invalidation.LocalInvalidationBus;
+import com.github.frank.system.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * 令牌的 ver 小于用户当前版本即视为过期；USER 失效事件到达后重新读取版本号
+ */
+class AccountVersionCacheTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final LocalInvalidationBus bus = new LocalInvalidationBus();
+    private final AccountVersionCache cache =
+            new AccountVersionCache(userRepository, bus, new SimpleMeterRegistry(), 100, Duration.ofMinutes(5));
+
+    @Test
+    void tokenWithCurrentVersionIsAccepted() {
+        when(userRepository.findAccountVersionByUsername("alice")).thenReturn(Optional.of(2L));
+
+        assertThat(cache.isCurrent("alice", 2)).isTrue();
+        assertThat(cache.isCurrent("alice", 1)).isFalse();
+        // 第二次检查命中缓存
+        verify(userRepository, times(1)).findAccountVersionByUsername("alice");
+    }
+
+    @Test
+    void versionBumpIsVisibleAfterInvalidation() {
+        when(userRepository.findAccountVersionByUsername("alice")).thenReturn(Optional.of(0L), Optional.of(1L));
+        assertThat(cache.isCurrent("alice", 0)).isTrue();
+
+        bus.publish(InvalidationEvent.Type.USER, "alice");
+
+        assertThat(cache.isCurrent("alice", 0)).isFalse();
+        assertThat(cache.isCurrent("alice", 1)).isTrue();
+    }
+
+    @Test
+    void missingUserIsNeverCurrent() {
+        when(userRepository.findAccountVersionByUsername("ghost")).thenReturn(Optional.empty());
+
+        assertThat(cache.isCurrent("ghost", Long.MAX_VALUE)).isFalse();
+    }
+
+    @Test
+    void missingUserIsCachedUntilInvalidated() {
+        when(userRepository.findAccountVersionByUsername("ghost")).thenReturn(Optional.empty(), Optional.of(0L));
+
+        assertThat(cache.isCurrent("ghost", 0)).isFalse();
+        assertThat(cache.isCurrent("ghost", 0)).isFalse();
+        verify(userRepository, times(1)).findAccountVersionByUsername("ghost");
+
+        // 同名用户重新注册后 USER 失效事件清除哨兵
+        bus.publish(InvalidationEvent.Type.USER, "ghost");
+        assertThat(cache.isCurrent("ghost", 0)).isTrue();
+    }
+}
@@ -0,0 +1,45 @@
+package com.github.frank.auth.service;
+
+import com.github.frank.auth.dto.LoginRequest;
+import com.github.frank.auth.dto.RegisterRequest;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 登录路径的 SQL 语句数，关闭用户缓存以统计冷路径
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "auth.user-cache.enabled=false"
+})
+class AuthServiceLoginQueryTest {
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void loginExecutesSingleUserQuery() {
+        var username = "login_" + System.nanoTime();
+        authService.register(new RegisterRequest(username, "password123", username + "@example.com"));
+
+        var statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        var response = authService.login(new LoginRequest(username, "password123"));
+
+        assertThat(response.token()).isNotBlank();
+        assertThat(response.userInfo().roles()).containsExactly("ROLE_USER");
+        // 一次用户投影查询 + 一次刷新令牌插入
+        assertThat(statistics.getQueryExecutionCount()).isEqualTo(1);
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,88 @@
+package com.github.frank.auth.service;
+
+import com.github.frank.auth.dto.RegisterRequest;
+import com.github.frank.common.exception.BusinessException;
+import com.github.frank.common.exception.ErrorCode;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 并发注册同一用户名或邮箱时，只有一个请求成功，其余返回对应的重复错误码
+ */
+@SpringBootTest
+class AuthServiceRegisterConcurrencyTest {
+
+    private static final int CONCURRENCY = 8;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void concurrentRegistrationsWithSameUsernameCreateOneUser() throws Exception {
+        var username = "race_" + System.nanoTime();
+
+        var outcomes = registerConcurrently(i -> new RegisterRequest(username, "password123", username + i + "@example.com"));
+
+        assertThat(outcomes).containsOnlyOnce("OK");
+        assertThat(outcomes).filteredOn(code -> !"OK".equals(code))
+                .containsOnly(ErrorCode.USERNAME_ALREADY_EXISTS.getCode());
+        assertThat(count("select count(*) from users where username = ?", username)).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentRegistrationsWithSameEmailCreateOneUser() throws Exception {
+        var email = "race_" + System.nanoTime() + "@example.com";
+
+        var outcomes = registerConcurrently(i -> new RegisterRequest("race_" + System.nanoTime() + "_" + i, "password123", email));
+
+        assertThat(outcomes).containsOnlyOnce("OK");
+        assertThat(outcomes).filteredOn(code -> !"OK".equals(code))
+                .containsOnly(ErrorCode.EMAIL_ALREADY_EXISTS.getCode());
+        assertThat(count("select count(*) from users where email = ?", email)).isEqualTo(1);
+    }
+
+    private List<String> registerConcurrently(IntFunction<RegisterRequest> requestFactory) throws Exception {
+        var executor = Executors.newFixedThreadPool(CONCURRENCY);
+        var startGate = new CountDownLatch(1);
+        try {
+            var futures = new ArrayList<Future<String>>();
+            for (int i = 0; i < CONCURRENCY; i++) {
+                var request = requestFactory.apply(i);
+                futures.add(executor.submit(() -> {
+                    startGate.await();
+                    try {
+                        authService.register(request);
+                        return "OK";
+                    } catch (BusinessException e) {
+                        return e.getCode();
+                    }
+                }));
+            }
+            startGate.countDown();
+
+            var outcomes = new ArrayList<String>();
+            for (var future : futures) {
+                outcomes.add(future.get(30, TimeUnit.SECONDS));
+            }
+            return outcomes;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Integer count(String sql, String value) {
+        return jdbcTemplate.queryForObject(sql, Integer.class, value);
+    }
+}
@@ -0,0 +1,64 @@
+package com.github.frank.auth.service;
+
+import com.github.frank.auth.dto.AuthUser;
+import com.github.frank.auth.entity.SigningKey;
+import com.github.frank.auth.repository.SigningKeyRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 非对称模式的启动检查，以及切换后对旧 HMAC 令牌的处理
+ */
+class JwtKeyRingTest {
+
+    private static final String SECRET = "test-secret-key-should-be-very-long-and-secure-at-least-256-bits";
+    private static final AuthUser USER = new AuthUser(1L, "alice", null, null, true, 0, null, Set.of());
+
+    @Test
+    void asymmetricModeRequiresDedicatedKeyEncryptionSecret() {
+        assertThatThrownBy(() -> keyRing("", false)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> keyRing(SECRET, false)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void legacyHmacTokensAreRejectedByDefault() {
+        var hmacToken = new JwtService(JwtKeyRing.hmac(SECRET), 30, false, 0).generateToken(USER);
+        var keyRing = keyRing("key-encryption-secret", false);
+        keyRing.init();
+        var jwtService = new JwtService(keyRing, 30, false, 0);
+
+        assertThat(jwtService.verify(hmacToken)).isEmpty();
+        assertThat(jwtService.verify(jwtService.generateToken(USER))).isPresent();
+    }
+
+    @Test
+    void legacyHmacTokensAreAcceptedWhenEnabled() {
+        var hmacToken = new JwtService(JwtKeyRing.hmac(SECRET), 30, false, 0).generateToken(USER);
+        var keyRing = keyRing("key-encryption-secret", true);
+        keyRing.init();
+
+        assertThat(new JwtService(keyRing, 30, false, 0).verify(hmacToken)).isPresent();
+    }
+
+    private static JwtKeyRing keyRing(String keyEncryptionSecret, boolean acceptLegacyHmac) {
+        var rows = new ArrayList<SigningKey>();
+        var repository = mock(SigningKeyRepository.class);
+        when(repository.findAllByOrderByActivatesAtAsc()).thenAnswer(invocation -> List.copyOf(rows));
+        when(repository.save(any())).thenAnswer(invocation -> {
+            rows.add(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+        return new JwtKeyRing(repository, SECRET, "ES256", keyEncryptionSecret, acceptLegacyHmac,
+                Duration.ofDays(30), Duration.ofMinutes(15), 30);
+    }
+}
@@ -0,0 +1,62 @@
+package com.github.frank.auth.service;
+
+import com.github.frank.auth.dto.AuthUser;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 只有 JwtService 签发的用户令牌能通过验证；同一密钥签发的客户端令牌（sub 为 client_id）不能被当作用户
+ */
+class JwtServiceTest {
+
+    private static final String SECRET = "test-secret-key-should-be-very-long-and-secure-at-least-256-bits";
+
+    private final JwtKeyRing keyRing = JwtKeyRing.hmac(SECRET);
+    private final JwtService jwtService = new JwtService(keyRing, 30, false, 0);
+
+    @Test
+    void userTokenRoundTrips() {
+        var user = new AuthUser(7L, "alice", null, null, true, 3, null, Set.of(new SimpleGrantedAuthority("ROLE_USER")));
+
+        var tokenInfo = jwtService.verify(jwtService.generateToken(user)).orElseThrow();
+
+        assertThat(tokenInfo.username()).isEqualTo("alice");
+        assertThat(tokenInfo.userId()).isEqualTo(7L);
+        assertThat(tokenInfo.accountVersion()).isEqualTo(3);
+        assertThat(tokenInfo.authorities()).containsExactly("ROLE_USER");
+    }
+
+    @Test
+    void clientTokenSignedWithSameKeyIsRejected() {
+        // 授权服务器签发的 client_credentials 令牌：sub 为 client_id，没有 token_type 和 uid
+        var clientToken = sign(Jwts.builder().subject("alice").claim("scope", "read"));
+
+        assertThat(jwtService.verify(clientToken)).isEmpty();
+    }
+
+    @Test
+    void userTypedTokenWithoutUserIdIsRejected() {
+        var token = sign(Jwts.builder().subject("alice").claim(JwtService.TOKEN_TYPE_CLAIM, JwtService.USER_TOKEN_TYPE));
+
+        assertThat(jwtService.verify(token)).isEmpty();
+    }
+
+    @Test
+    void tokenWithUserIdButNoTypeIsRejected() {
+        var token = sign(Jwts.builder().subject("alice").claim(JwtService.USER_ID_CLAIM, 7L));
+
+        assertThat(jwtService.verify(token)).isEmpty();
+    }
+
+    private String sign(JwtBuilder builder) {
+        return keyRing.signWith(builder.expiration(Date.from(Instant.now().plusSeconds(60)))).compact();
+    }
+}
@@ -0,0 +1,60 @@
+package com.github.frank.auth.service;
+
+import com.github.frank.auth.entity.SigningKey;
+import com.github.frank.auth.repository.SigningKeyRepository;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.KeyType;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * EdDSA 密钥环不能阻止启动：授权服务器 JWKSource 中不出现 OKP 密钥
+ */
+class KeyRingJwkSourceTest {
+
+    private static final JWKSelector ALL_KEYS = new JWKSelector(new JWKMatcher.Builder().build());
+
+    @Test
+    void ecKeysAreExposedWithPrivateKey() {
+        var keyRing = keyRing("ES256");
+
+        var jwks = new KeyRingJwkSource(keyRing).get(ALL_KEYS, null);
+
+        assertThat(jwks).singleElement().satisfies(jwk -> {
+            assertThat(jwk.getKeyType()).isEqualTo(KeyType.EC);
+            assertThat(jwk.getKeyID()).isEqualTo(keyRing.activeKey().kid());
+            assertThat(jwk.isPrivate()).isTrue();
+        });
+    }
+
+    @Test
+    void eddsaKeyRingStartsWithoutAuthorizationServerKeys() {
+        var keyRing = keyRing("EdDSA");
+
+        assertThat(KeyRingJwkSource.isSupported(keyRing.activeKey())).isFalse();
+        assertThat(new KeyRingJwkSource(keyRing).get(ALL_KEYS, null)).isEmpty();
+    }
+
+    private static JwtKeyRing keyRing(String algorithm) {
+        var rows = new ArrayList<SigningKey>();
+        var repository = mock(SigningKeyRepository.class);
+        when(repository.findAllByOrderByActivatesAtAsc()).thenAnswer(invocation -> List.copyOf(rows));
+        when(repository.save(any())).thenAnswer(invocation -> {
+            rows.add(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+        var keyRing = new JwtKeyRing(repository, "test-secret-key-should-be-very-long-and-secure-at-least-256-bits",
+                algorithm, "key-encryption-secret", false, Duration.ofDays(30), Duration.ofMinutes(15), 30);
+        keyRing.init();
+        return keyRing;
+    }
+}
@@ -0,0 +1,157 @@
+package com.github.frank.auth.service;
+
+import com.github.frank.common.exception.BusinessException;
+import com.github.frank.common.exception.ErrorCode;
+import com.github.frank.system.service.UserService;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * 阈值、锁定时长翻倍与上限、失败窗口过期，以及登录成功后的解锁
+ */
+class LoginAttemptTrackerTest {
+
+    private static final int MAX_FAILURES = 3;
+    private static final Duration BASE_LOCK = Duration.ofMinutes(1);
+    private static final Duration MAX_LOCK = Duration.ofMinutes(4);
+
+    private final UserService userService = mock(UserService.class);
+    private final UserDetailsCache userDetailsCache = mock(UserDetailsCache.class);
+    private final MutableClock clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+    private final LoginAttemptTracker tracker = tracker(true);
+
+    @Test
+    void locksWhenFailuresReachThreshold() {
+        fail("alice", MAX_FAILURES - 1);
+        assertThatCode(() -> tracker.checkNotLocked("alice")).doesNotThrowAnyException();
+        verifyNoInteractions(userService);
+
+        fail("alice", 1);
+
+        var lockedUntil = clock.instant().plus(BASE_LOCK);
+        verify(userService).updateLockedUntil("alice", lockedUntil);
+        verify(userDetailsCache).removeUserFromCache("alice");
+        assertThatThrownBy(() -> tracker.checkNotLocked("ALICE"))
+                .isInstanceOfSatisfying(BusinessException.class, e -> {
+                    assertThat(e.getCode()).isEqualTo(ErrorCode.ACCOUNT_LOCKED.getCode());
+                    assertThat(e.getRetryAfterSeconds()).isEqualTo(BASE_LOCK.toSeconds());
+                });
+    }
+
+    @Test
+    void failuresDuringLockDoNotExtendIt() {
+        fail("alice", MAX_FAILURES);
+        fail("alice", MAX_FAILURES * 2);
+
+        verify(userService, times(1)).updateLockedUntil(anyString(), any());
+    }
+
+    @Test
+    void lockDurationDoublesUpToMaximum() {
+        var expected = new Duration[]{BASE_LOCK, BASE_LOCK.multipliedBy(2), MAX_LOCK, MAX_LOCK};
+        for (var duration : expected) {
+            fail("alice", MAX_FAILURES);
+            verify(userService).updateLockedUntil("alice", clock.instant().plus(duration));
+            clock.advance(duration);
+            assertThatCode(() -> tracker.checkNotLocked("alice")).doesNotThrowAnyException();
+        }
+    }
+
+    @Test
+    void failuresOutsideWindowStartANewCount() {
+        fail("alice", MAX_FAILURES - 1);
+        clock.advance(Duration.ofMinutes(16));
+
+        fail("alice", MAX_FAILURES - 1);
+        verifyNoInteractions(userService);
+
+        fail("alice", 1);
+        verify(userService).updateLockedUntil("alice", clock.instant().plus(BASE_LOCK));
+    }
+
+    @Test
+    void successClearsPersistedLockAndResetsBackoff() {
+        fail("alice", MAX_FAILURES);
+        clock.advance(BASE_LOCK);
+        var persistedLock = clock.instant();
+
+        tracker.recordSuccess("alice", persistedLock);
+
+        verify(userService).updateLockedUntil("alice", null);
+        verify(userDetailsCache, times(2)).removeUserFromCache("alice");
+        // 锁定次数已清零，再次锁定回到基础时长
+        fail("alice", MAX_FAILURES);
+        verify(userService).updateLockedUntil("alice", clock.instant().plus(BASE_LOCK));
+    }
+
+    @Test
+    void successWithoutPersistedLockDoesNotWrite() {
+        fail("alice", MAX_FAILURES - 1);
+
+        tracker.recordSuccess("alice", null);
+        fail("alice", MAX_FAILURES - 1);
+
+        verifyNoInteractions(userService);
+    }
+
+    @Test
+    void disabledTrackerNeverLocks() {
+        var disabled = tracker(false);
+        for (int i = 0; i < MAX_FAILURES * 2; i++) {
+            disabled.recordFailure("alice");
+        }
+
+        assertThatCode(() -> disabled.checkNotLocked("alice")).doesNotThrowAnyException();
+        verifyNoInteractions(userService);
+    }
+
+    private LoginAttemptTracker tracker(boolean enabled) {
+        return new LoginAttemptTracker(userService, userDetailsCache, enabled, MAX_FAILURES, Duration.ofMinutes(15),
+                BASE_LOCK, MAX_LOCK, Duration.ofHours(24), 1000, clock);
+    }
+
+    private void fail(String username, int times) {
+        for (int i = 0; i < times; i++) {
+            tracker.recordFailure(username);
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
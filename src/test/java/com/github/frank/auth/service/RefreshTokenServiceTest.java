@@ -0,0 +1,159 @@
+package com.github.frank.auth.service;
+
+import com.github.frank.auth.dto.AuthUser;
+import com.github.frank.auth.entity.RefreshToken;
+import com.github.frank.auth.repository.RefreshTokenRepository;
+import com.github.frank.common.exception.BusinessException;
+import com.github.frank.common.exception.ErrorCode;
+import com.github.frank.system.dto.UserProfileView;
+import com.github.frank.system.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * 每次使用即轮换且保持 family；已轮换令牌再次出现时撤销整个 family；索引未命中时回退到数据库
+ */
+class RefreshTokenServiceTest {
+
+    private static final AuthUser ALICE =
+            new AuthUser(1L, "alice", "{noop}secret", "alice@example.com", true, 0L, null, Set.of());
+
+    private final RefreshTokenRepository repository = mock(RefreshTokenRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final CustomUserDetailsService userDetailsService = mock(CustomUserDetailsService.class);
+    // 模拟 refresh_tokens 表，markUsed / revokeFamily 的条件与 JPQL 一致
+    private final Map<Long, RefreshToken> rows = new ConcurrentHashMap<>();
+    private final AtomicLong ids = new AtomicLong();
+
+    @BeforeEach
+    void setUp() {
+        when(repository.save(any())).thenAnswer(invocation -> {
+            RefreshToken token = invocation.getArgument(0);
+            token.setId(ids.incrementAndGet());
+            rows.put(token.getId(), token);
+            return token;
+        });
+        when(repository.findByTokenHash(any())).thenAnswer(invocation -> rows.values().stream()
+                .filter(token -> token.getTokenHash().equals(invocation.getArgument(0)))
+                .findFirst());
+        when(repository.markUsed(any(), any())).thenAnswer(invocation -> {
+            var token = rows.get(invocation.<Long>getArgument(0));
+            if (token == null || token.getUsedAt() != null || token.isRevoked()) {
+                return 0;
+            }
+            token.setUsedAt(invocation.getArgument(1));
+            return 1;
+        });
+        when(repository.revokeFamily(any())).thenAnswer(invocation -> {
+            int updated = 0;
+            for (var token : rows.values()) {
+                if (token.getFamilyId().equals(invocation.getArgument(0))) {
+                    token.setRevoked(true);
+                    updated++;
+                }
+            }
+            return updated;
+        });
+        when(userRepository.findProfileById(1L))
+                .thenReturn(Optional.of(new UserProfileView(1L, "alice", "alice@example.com")));
+        when(userDetailsService.loadUserByUsername("alice")).thenReturn(ALICE);
+    }
+
+    @Test
+    void rotationIssuesNewTokenInSameFamily() {
+        var service = newService();
+        var issued = service.issue(ALICE);
+
+        var rotation = service.rotate(issued.value());
+
+        assertThat(rotation.user()).isSameAs(ALICE);
+        assertThat(rotation.refreshToken().value()).isNotEqualTo(issued.value());
+        assertThat(rotation.refreshToken().familyId()).isEqualTo(issued.familyId());
+        // 库中只保存摘要
+        assertThat(rows.values()).noneMatch(token -> token.getTokenHash().equals(issued.value()));
+    }
+
+    @Test
+    void reusedTokenRevokesWholeFamily() {
+        var service = newService();
+        var issued = service.issue(ALICE);
+        var rotated = service.rotate(issued.value()).refreshToken();
+
+        assertThatThrownBy(() -> service.rotate(issued.value()))
+                .isInstanceOfSatisfying(BusinessException.class, e ->
+                        assertThat(e.getCode()).isEqualTo(ErrorCode.REFRESH_TOKEN_REUSED.getCode()));
+        verify(repository).revokeFamily(issued.familyId());
+        // 攻击者或合法用户手中的最新令牌也随 family 一起失效
+        assertThatThrownBy(() -> service.rotate(rotated.value()))
+                .isInstanceOfSatisfying(BusinessException.class, e ->
+                        assertThat(e.getCode()).isEqualTo(ErrorCode.REFRESH_TOKEN_REUSED.getCode()));
+    }
+
+    @Test
+    void unknownTokenIsRejected() {
+        var service = newService();
+
+        assertThatThrownBy(() -> service.rotate("unknown"))
+                .isInstanceOfSatisfying(BusinessException.class, e ->
+                        assertThat(e.getCode()).isEqualTo(ErrorCode.INVALID_REFRESH_TOKEN.getCode()));
+    }
+
+    @Test
+    void indexMissFallsBackToDatabase() {
+        var issued = newService().issue(ALICE);
+        // 新实例的内存索引为空，相当于节点重启或请求落到其他节点
+        var service = newService();
+
+        var rotation = service.rotate(issued.value());
+
+        assertThat(rotation.refreshToken().familyId()).isEqualTo(issued.familyId());
+        verify(userRepository).findProfileById(1L);
+    }
+
+    @Test
+    void expiredTokenIsRejectedWithoutBeingMarkedUsed() {
+        var issued = newService().issue(ALICE);
+        rows.values().forEach(token -> token.setExpiresAt(Instant.now().minusSeconds(1)));
+
+        assertThatThrownBy(() -> newService().rotate(issued.value()))
+                .isInstanceOfSatisfying(BusinessException.class, e ->
+                        assertThat(e.getCode()).isEqualTo(ErrorCode.INVALID_REFRESH_TOKEN.getCode()));
+        verify(repository, never()).markUsed(any(), any());
+    }
+
+    @Test
+    void logoutRevokesFamily() {
+        var service = newService();
+        var issued = service.issue(ALICE);
+
+        service.revoke(issued.value());
+
+        assertThatThrownBy(() -> service.rotate(issued.value()))
+                .isInstanceOfSatisfying(BusinessException.class, e ->
+                        assertThat(e.getCode()).isEqualTo(ErrorCode.REFRESH_TOKEN_REUSED.getCode()));
+    }
+
+    @Test
+    void revokingUnknownTokenIsIgnored() {
+        newService().revoke("unknown");
+
+        verify(repository, never()).revokeFamily(any());
+    }
+
+    private RefreshTokenService newService() {
+        return new RefreshTokenService(repository, userRepository, userDetailsService, Duration.ofDays(14), 100);
+    }
+}
@@ -0,0 +1,50 @@
+package com.github.frank.auth.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 已插入的值一定命中；未插入的值误判率接近配置值
+ */
+class RevocationBloomFilterTest {
+
+    @Test
+    void neverReturnsFalseNegatives() {
+        var filter = new RevocationBloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("jti-" + i);
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(filter.mightContain("jti-" + i)).as("jti-%d", i).isTrue();
+        }
+    }
+
+    @Test
+    void falsePositiveRateStaysNearConfiguredRate() {
+        var filter = new RevocationBloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("revoked-" + i);
+        }
+
+        int falsePositives = 0;
+        int probes = 100_000;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain("active-" + i)) {
+                falsePositives++;
+            }
+        }
+        // 位数向上取 2 的幂，实际误判率应不高于目标值；留出统计波动余量
+        assertThat((double) falsePositives / probes).isLessThan(0.02);
+    }
+
+    @Test
+    void emptyFilterContainsNothing() {
+        var filter = new RevocationBloomFilter(0, 0.01);
+
+        assertThat(filter.mightContain("jti-1")).isFalse();
+        filter.put("jti-1");
+        assertThat(filter.mightContain("jti-1")).isTrue();
+    }
+}
@@ -0,0 +1,108 @@
+package com.github.frank.auth.service;
+
+import com.github.frank.auth.dto.IntrospectionResponse;
+import com.github.frank.common.exception.BusinessException;
+import com.github.frank.common.exception.ErrorCode;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+/**
+ * 验签交给 JwtService（与过滤器共用已验签缓存），撤销和账号版本每次都重新检查；批量结果与输入顺序一致，超过上限整体拒绝
+ */
+class TokenIntrospectionServiceTest {
+
+    private final JwtService jwtService = mock(JwtService.class);
+    private final TokenRevocationService revocationService = mock(TokenRevocationService.class);
+    private final AccountVersionCache accountVersions = mock(AccountVersionCache.class);
+    private final TokenIntrospectionService service =
+            new TokenIntrospectionService(jwtService, revocationService, accountVersions, 3);
+
+    @Test
+    void validTokenIsActiveWithItsClaims() {
+        var info = tokenInfo("jti-1", "alice");
+        givenValid("token-1", info);
+
+        var response = service.introspect("token-1");
+
+        assertThat(response.active()).isTrue();
+        assertThat(response.sub()).isEqualTo("alice");
+        assertThat(response.username()).isEqualTo("alice");
+        assertThat(response.exp()).isEqualTo(info.expiration().getEpochSecond());
+        assertThat(response.jti()).isEqualTo("jti-1");
+        assertThat(response.roles()).containsExactly("ROLE_USER");
+        assertThat(response.uid()).isEqualTo(42L);
+        assertThat(response.ver()).isEqualTo(3L);
+    }
+
+    @Test
+    void blankOrInvalidTokenIsInactive() {
+        when(jwtService.verify("garbage")).thenReturn(Optional.empty());
+
+        assertThat(service.introspect(null)).isSameAs(IntrospectionResponse.INACTIVE);
+        assertThat(service.introspect(" ")).isSameAs(IntrospectionResponse.INACTIVE);
+        assertThat(service.introspect("garbage")).isSameAs(IntrospectionResponse.INACTIVE);
+        verify(jwtService, times(1)).verify(anyString());
+    }
+
+    @Test
+    void revokedTokenBecomesInactiveEvenWhenVerificationIsCached() {
+        givenValid("token-1", tokenInfo("jti-1", "alice"));
+        assertThat(service.introspect("token-1").active()).isTrue();
+
+        when(revocationService.isRevoked("jti-1")).thenReturn(true);
+
+        assertThat(service.introspect("token-1")).isSameAs(IntrospectionResponse.INACTIVE);
+    }
+
+    @Test
+    void staleAccountVersionIsInactive() {
+        givenValid("token-1", tokenInfo("jti-1", "alice"));
+        when(accountVersions.isCurrent("alice", 3L)).thenReturn(false);
+
+        assertThat(service.introspect("token-1")).isSameAs(IntrospectionResponse.INACTIVE);
+    }
+
+    @Test
+    void batchKeepsInputOrder() {
+        givenValid("token-a", tokenInfo("jti-a", "alice"));
+        givenValid("token-b", tokenInfo("jti-b", "bobby"));
+        when(jwtService.verify("garbage")).thenReturn(Optional.empty());
+
+        var results = service.introspectAll(List.of("token-b", "garbage", "token-a"));
+
+        assertThat(results).extracting(IntrospectionResponse::username)
+                .containsExactly("bobby", null, "alice");
+        assertThat(results).extracting(IntrospectionResponse::active)
+                .containsExactly(true, false, true);
+    }
+
+    @Test
+    void oversizedBatchIsRejected() {
+        var tokens = Collections.nCopies(4, "token-1");
+
+        assertThatThrownBy(() -> service.introspectAll(tokens))
+                .isInstanceOfSatisfying(BusinessException.class, e ->
+                        assertThat(e.getCode()).isEqualTo(ErrorCode.INTROSPECTION_BATCH_TOO_LARGE.getCode()));
+        verifyNoInteractions(jwtService);
+    }
+
+    private void givenValid(String token, JwtService.JwtTokenInfo info) {
+        when(jwtService.verify(token)).thenReturn(Optional.of(info));
+        when(accountVersions.isCurrent(info.username(), info.accountVersion())).thenReturn(true);
+    }
+
+    private static JwtService.JwtTokenInfo tokenInfo(String jti, String username) {
+        return new JwtService.JwtTokenInfo(username, Instant.now().plus(Duration.ofMinutes(5)), jti,
+                Set.of("ROLE_USER"), 42L, 3L);
+    }
+}
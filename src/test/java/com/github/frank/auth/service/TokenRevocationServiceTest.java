@@ -0,0 +1,167 @@
+package com.github.frank.auth.service;
+
+import com.github.frank.auth.entity.RevokedToken;
+import com.github.frank.auth.repository.RevokedTokenRepository;
+import com.github.frank.common.invalidation.InvalidationBus;
+import com.github.frank.common.invalidation.InvalidationEvent;
+import com.github.frank.common.invalidation.LocalInvalidationBus;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * 撤销立即在本节点生效并通知其他节点；其他节点的撤销经总线触发增量同步；过期条目清理后不再命中
+ */
+class TokenRevocationServiceTest {
+
+    private final RevokedTokenRepository repository = mock(RevokedTokenRepository.class);
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final LocalInvalidationBus bus = new LocalInvalidationBus();
+    private final TokenRevocationService service = new TokenRevocationService(repository, jdbcTemplate, bus, 1_000, 0.01);
+
+    @Test
+    void revokedTokenIsRejectedAndPersisted() {
+        service.revoke("jti-1", Instant.now().plus(Duration.ofMinutes(5)));
+
+        assertThat(service.isRevoked("jti-1")).isTrue();
+        assertThat(service.isRevoked("jti-2")).isFalse();
+        verify(repository).save(argThat(token -> token.getJti().equals("jti-1")));
+        // 本节点发布的事件回环到自身，jti 已在内存中，不触发同步
+        verify(repository, never()).findByRevokedAtGreaterThanEqualAndExpiresAtAfter(any(), any());
+    }
+
+    @Test
+    void revocationIsPublishedOnTheBus() {
+        var publishingBus = mock(InvalidationBus.class);
+        var publishing = new TokenRevocationService(repository, jdbcTemplate, publishingBus, 1_000, 0.01);
+
+        publishing.revoke("jti-1", Instant.now().plus(Duration.ofMinutes(5)));
+
+        verify(publishingBus).publish(InvalidationEvent.Type.TOKEN_REVOKED, "jti-1");
+    }
+
+    @Test
+    void tokenWithoutJtiIsNeverRevoked() {
+        service.revoke(null, Instant.now().plus(Duration.ofMinutes(5)));
+
+        assertThat(service.isRevoked(null)).isFalse();
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void alreadyExpiredTokenIsIgnored() {
+        service.revoke("jti-1", Instant.now().minusSeconds(1));
+
+        assertThat(service.isRevoked("jti-1")).isFalse();
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void duplicateRevocationStaysRevokedWithoutRepublishing() {
+        var publishingBus = mock(InvalidationBus.class);
+        var publishing = new TokenRevocationService(repository, jdbcTemplate, publishingBus, 1_000, 0.01);
+        when(repository.save(any())).thenThrow(new DataIntegrityViolationException("duplicate jti"));
+
+        publishing.revoke("jti-1", Instant.now().plus(Duration.ofMinutes(5)));
+
+        assertThat(publishing.isRevoked("jti-1")).isTrue();
+        verify(publishingBus, never()).publish(any(), any());
+    }
+
+    @Test
+    void failedSaveLeavesTokenUnrevoked() {
+        var publishingBus = mock(InvalidationBus.class);
+        var publishing = new TokenRevocationService(repository, jdbcTemplate, publishingBus, 1_000, 0.01);
+        var failure = new DataAccessResourceFailureException("connection lost");
+        when(repository.save(any())).thenThrow(failure);
+
+        assertThatThrownBy(() -> publishing.revoke("jti-1", Instant.now().plus(Duration.ofMinutes(5))))
+                .isSameAs(failure);
+        assertThat(publishing.isRevoked("jti-1")).isFalse();
+        verify(publishingBus, never()).publish(any(), any());
+    }
+
+    @Test
+    void loadRestoresUnexpiredRevocations() {
+        when(repository.findByExpiresAtAfter(any()))
+                .thenReturn(List.of(revokedToken("jti-1", Instant.now().plus(Duration.ofMinutes(5)))));
+
+        service.load();
+
+        assertThat(service.isRevoked("jti-1")).isTrue();
+    }
+
+    @Test
+    void eventFromAnotherNodeTriggersSync() {
+        when(repository.findByRevokedAtGreaterThanEqualAndExpiresAtAfter(any(), any()))
+                .thenReturn(List.of(revokedToken("jti-remote", Instant.now().plus(Duration.ofMinutes(5)))));
+
+        bus.publish(InvalidationEvent.Type.TOKEN_REVOKED, "jti-remote");
+
+        assertThat(service.isRevoked("jti-remote")).isTrue();
+        verify(repository).findByRevokedAtGreaterThanEqualAndExpiresAtAfter(any(), any());
+    }
+
+    @Test
+    void syncStartsFromDatabaseTimeAndContinuesFromLastSeenRevocation() {
+        var loadedAt = Instant.parse("2026-01-01T00:00:00Z");
+        var revokedAt = loadedAt.plusSeconds(60);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Timestamp.class))).thenReturn(Timestamp.from(loadedAt));
+        var token = revokedToken("jti-1", Instant.now().plus(Duration.ofMinutes(5)));
+        token.setRevokedAt(revokedAt);
+        when(repository.findByRevokedAtGreaterThanEqualAndExpiresAtAfter(any(), any())).thenReturn(List.of(token), List.of());
+
+        service.load();
+        service.sync();
+        service.sync();
+
+        assertThat(service.isRevoked("jti-1")).isTrue();
+        // 不从 EPOCH 扫描全表，而是从加载时的数据库时间往前留出重叠窗口
+        verify(repository).findByRevokedAtGreaterThanEqualAndExpiresAtAfter(eq(loadedAt.minusSeconds(30)), any());
+        verify(repository).findByRevokedAtGreaterThanEqualAndExpiresAtAfter(eq(revokedAt.minusSeconds(30)), any());
+    }
+
+    @Test
+    void syncSkipsExpiredRevocations() {
+        when(repository.findByRevokedAtGreaterThanEqualAndExpiresAtAfter(any(), any())).thenReturn(List.of());
+        var before = Instant.now();
+
+        service.sync();
+
+        verify(repository).findByRevokedAtGreaterThanEqualAndExpiresAtAfter(any(),
+                argThat(now -> !now.isBefore(before)));
+    }
+
+    @Test
+    void pruneDropsExpiredEntriesAndKeepsLiveOnes() {
+        when(repository.findByExpiresAtAfter(any())).thenReturn(List.of(
+                revokedToken("jti-expired", Instant.now().minusSeconds(1)),
+                revokedToken("jti-live", Instant.now().plus(Duration.ofMinutes(5)))));
+        service.load();
+        assertThat(service.isRevoked("jti-expired")).isTrue();
+
+        service.prune();
+
+        assertThat(service.isRevoked("jti-expired")).isFalse();
+        assertThat(service.isRevoked("jti-live")).isTrue();
+        verify(repository).deleteExpired(any());
+    }
+
+    private static RevokedToken revokedToken(String jti, Instant expiresAt) {
+        var token = new RevokedToken();
+        token.setJti(jti);
+        token.setExpiresAt(expiresAt);
+        return token;
+    }
+}
@@ -0,0 +1,274 @@
+package com.github.frank.auth.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.frank.auth.dto.UserImportError;
+import com.github.frank.auth.dto.UserImportProgress;
+import com.github.frank.common.exception.ErrorCode;
+import com.github.frank.common.invalidation.LocalInvalidationBus;
+import com.github.frank.system.entity.Role;
+import com.github.frank.system.repository.RoleRepository;
+import com.github.frank.system.service.RoleCatalog;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * 导入的解析与校验：数据库访问全部 mock，只验证哪些行被拒绝以及拒绝原因
+ */
+class UserImportServiceTest {
+
+    private static final BCryptPasswordEncoder BCRYPT = new BCryptPasswordEncoder(4);
+
+    private final NamedParameterJdbcTemplate jdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final UserDetailsCache userDetailsCache = mock(UserDetailsCache.class);
+    private final UserImportService importService = new UserImportService(
+            jdbcTemplate,
+            transactionTemplate,
+            BCRYPT,
+            roleCatalog(),
+            userDetailsCache,
+            new ObjectMapper(),
+            Validation.buildDefaultValidatorFactory().getValidator(),
+            500,
+            1,
+            4,
+            1024,
+            1);
+
+    @AfterEach
+    void tearDown() {
+        importService.destroy();
+    }
+
+    @Test
+    void csvSupportsQuotedFieldsRolesAndUnknownColumns() throws IOException {
+        var csv = """
+                username,email,password,roles,nickname
+                "alice",alice@example.com,"pa,ss""word",ROLE_USER; ROLE_ADMIN,Alice
+
+                bobby,bob@example.com,password1,,"Bob"
+                carol,carol@example.com
+                """;
+
+        var result = importCsv(csv);
+
+        assertThat(result.summary().imported()).isEqualTo(2);
+        assertThat(result.errors()).singleElement().satisfies(error -> {
+            // 表头为第 1 行，空行也计入行号
+            assertThat(error.line()).isEqualTo(5);
+            assertThat(error.message()).isEqualTo("Expected 5 columns but found 2");
+        });
+    }
+
+    @Test
+    void ndjsonRejectsMalformedLines() throws IOException {
+        var ndjson = """
+                {"username":"alice","email":"alice@example.com","password":"password1"}
+                {"username":"bob",
+                """;
+
+        var result = importNdjson(ndjson);
+
+        assertThat(result.summary().imported()).isEqualTo(1);
+        assertThat(result.errors()).singleElement().satisfies(error -> {
+            assertThat(error.line()).isEqualTo(2);
+            assertThat(error.message()).isEqualTo("Malformed JSON");
+        });
+    }
+
+    @Test
+    void exactlyOneOfPasswordOrHashIsRequired() throws IOException {
+        var ndjson = """
+                {"username":"alice","email":"alice@example.com"}
+                {"username":"bobby","email":"bob@example.com","password":"password1","passwordHash":"%s"}
+                """.formatted(BCRYPT.encode("password1"));
+
+        var result = importNdjson(ndjson);
+
+        assertThat(result.summary().imported()).isZero();
+        assertThat(result.errors()).extracting(UserImportError::message)
+                .containsOnly("Exactly one of password or passwordHash is required");
+    }
+
+    @Test
+    void acceptsOnlyBcryptAndArgon2Hashes() throws IOException {
+        var bcrypt = BCRYPT.encode("password1");
+        var argon2 = new Argon2PasswordEncoder(16, 32, 1, 1024, 1).encode("password1");
+        var rows = List.of(
+                bcrypt,
+                "{bcrypt}" + bcrypt,
+                "{argon2}" + argon2,
+                "{noop}password1",
+                "{sha256}" + "a".repeat(64),
+                "{bcrypt}not-a-hash",
+                // 盐和哈希共 53 位，少一位即拒绝
+                bcrypt.substring(0, bcrypt.length() - 1),
+                "{argon2}$argon2id$v=19$m=1024,t=1,p=1$$",
+                "{bcrypt}" + argon2);
+        var ndjson = new StringBuilder();
+        for (int i = 0; i < rows.size(); i++) {
+            ndjson.append("""
+                    {"username":"user%d","email":"user%d@example.com","passwordHash":"%s"}
+                    """.formatted(i, i, rows.get(i)));
+        }
+
+        var result = importNdjson(ndjson.toString());
+
+        assertThat(result.summary().imported()).isEqualTo(3);
+        assertThat(result.errors()).extracting(UserImportError::line).containsExactly(4L, 5L, 6L, 7L, 8L, 9L);
+        assertThat(result.errors()).extracting(UserImportError::message).containsOnly("Unsupported password hash format");
+    }
+
+    @Test
+    void rejectsHashesCostlierThanConfigured() throws IOException {
+        var argon2 = "{argon2}" + new Argon2PasswordEncoder(16, 32, 1, 1024, 1).encode("password1");
+        var rows = List.of(
+                // 配置强度 4，允许到 6
+                new BCryptPasswordEncoder(6).encode("password1"),
+                new BCryptPasswordEncoder(7).encode("password1"),
+                argon2.replace("m=1024", "m=1048576"),
+                argon2.replace("t=1", "t=2"),
+                argon2.replace("p=1", "p=4"));
+        var ndjson = new StringBuilder();
+        for (int i = 0; i < rows.size(); i++) {
+            ndjson.append("""
+                    {"username":"user%d","email":"user%d@example.com","passwordHash":"%s"}
+                    """.formatted(i, i, rows.get(i)));
+        }
+
+        var result = importNdjson(ndjson.toString());
+
+        assertThat(result.summary().imported()).isEqualTo(1);
+        assertThat(result.errors()).extracting(UserImportError::line).containsExactly(2L, 3L, 4L, 5L);
+        assertThat(result.errors()).extracting(UserImportError::message)
+                .containsOnly("Password hash cost exceeds the configured limit");
+    }
+
+    @Test
+    void rejectsInvalidFieldsUnknownRolesAndDuplicatesWithinBatch() throws IOException {
+        var ndjson = """
+                {"username":"abc","email":"not-an-email","password":"password1"}
+                {"username":"alice","email":"alice@example.com","password":"password1","roles":["ROLE_ROOT"]}
+                {"username":"bobby","email":"bob@example.com","password":"password1"}
+                {"username":"bobby","email":"bob2@example.com","password":"password1"}
+                {"username":"carol","email":"bob@example.com","password":"password1"}
+                """;
+
+        var result = importNdjson(ndjson);
+
+        assertThat(result.summary().imported()).isEqualTo(1);
+        assertThat(result.errors()).extracting(UserImportError::code).containsExactly(
+                ErrorCode.INVALID_REQUEST.getCode(),
+                ErrorCode.ROLE_NOT_FOUND.getCode(),
+                ErrorCode.USERNAME_ALREADY_EXISTS.getCode(),
+                ErrorCode.EMAIL_ALREADY_EXISTS.getCode());
+        assertThat(result.errors().get(0).message())
+                .isEqualTo("Email should be valid, Username must be between 4 and 50 characters");
+    }
+
+    @Test
+    void rowByRowFallbackMapsConstraintNames() throws IOException {
+        var jdbc = mock(JdbcTemplate.class);
+        when(jdbcTemplate.getJdbcTemplate()).thenReturn(jdbc);
+        when(jdbc.update(any(PreparedStatementCreator.class), any(KeyHolder.class))).thenAnswer(invocation -> {
+            invocation.<KeyHolder>getArgument(1).getKeyList().add(Map.of("id", 42L));
+            return 1;
+        });
+        doThrow(duplicate("for key 'users.uk_users_email'"))
+                .doThrow(duplicate("for key 'users.uk_users_email'"))
+                .doAnswer(invocation -> {
+                    invocation.<Consumer<TransactionStatus>>getArgument(0).accept(mock(TransactionStatus.class));
+                    return null;
+                })
+                .when(transactionTemplate).executeWithoutResult(any());
+        var ndjson = """
+                {"username":"email_owner","email":"alice@example.com","password":"password1"}
+                {"username":"bobby","email":"bob@example.com","password":"password1"}
+                """;
+
+        var result = importNdjson(ndjson);
+
+        assertThat(result.summary().imported()).isEqualTo(1);
+        assertThat(result.errors()).singleElement().satisfies(error -> {
+            assertThat(error.line()).isEqualTo(1);
+            assertThat(error.code()).isEqualTo(ErrorCode.EMAIL_ALREADY_EXISTS.getCode());
+        });
+        // 只有实际插入的行经失效总线清除各节点的负缓存
+        verify(userDetailsCache).evictAfterCommit("bobby");
+        verify(userDetailsCache, never()).evictAfterCommit("email_owner");
+        verify(userDetailsCache, never()).removeUserFromCache(any());
+    }
+
+    @Test
+    void rowByRowFallbackRethrowsUnrelatedConstraints() {
+        var unrelated = duplicate("for key 'user_roles.uk_user_role'");
+        doThrow(duplicate("for key 'username'"))
+                .doThrow(unrelated)
+                .when(transactionTemplate).executeWithoutResult(any());
+        var ndjson = """
+                {"username":"alice","email":"alice@example.com","password":"password1"}
+                """;
+
+        assertThatThrownBy(() -> importNdjson(ndjson)).isSameAs(unrelated);
+    }
+
+    private record ImportResult(UserImportProgress summary, List<UserImportError> errors) {
+    }
+
+    private ImportResult importCsv(String body) throws IOException {
+        return importUsers(body, UserImportService.ImportFormat.CSV);
+    }
+
+    private ImportResult importNdjson(String body) throws IOException {
+        return importUsers(body, UserImportService.ImportFormat.NDJSON);
+    }
+
+    private ImportResult importUsers(String body, UserImportService.ImportFormat format) throws IOException {
+        var errors = new ArrayList<UserImportError>();
+        var summary = importService.importUsers(new StringReader(body), format, progress -> errors.addAll(progress.errors()));
+        return new ImportResult(summary, errors);
+    }
+
+    private static DuplicateKeyException duplicate(String key) {
+        return new DuplicateKeyException("insert failed",
+                new SQLIntegrityConstraintViolationException("Duplicate entry 'x' " + key));
+    }
+
+    private static RoleCatalog roleCatalog() {
+        var roleRepository = mock(RoleRepository.class);
+        when(roleRepository.findAll()).thenReturn(List.of(role(1L, "ROLE_USER"), role(2L, "ROLE_ADMIN")));
+        var roleCatalog = new RoleCatalog(roleRepository, new LocalInvalidationBus());
+        roleCatalog.load();
+        return roleCatalog;
+    }
+
+    private static Role role(Long id, String name) {
+        var role = new Role();
+        role.setId(id);
+        role.setName(name);
+        return role;
+    }
+}
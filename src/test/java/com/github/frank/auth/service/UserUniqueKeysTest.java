@@ -0,0 +1,55 @@
+package com.github.frank.auth.service;
+
+import com.github.frank.common.exception.ErrorCode;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.sql.SQLIntegrityConstraintViolationException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 只按约束名判定重复字段，错误信息中出现 email 等字样不影响结果
+ */
+class UserUniqueKeysTest {
+
+    @Test
+    void mapsHibernateConstraintNames() {
+        assertThat(UserUniqueKeys.duplicateErrorOf(jpaViolation("uk_users_email")))
+                .contains(ErrorCode.EMAIL_ALREADY_EXISTS);
+        assertThat(UserUniqueKeys.duplicateErrorOf(jpaViolation("users.username")))
+                .contains(ErrorCode.USERNAME_ALREADY_EXISTS);
+    }
+
+    @Test
+    void mapsMysqlDuplicateKeyMessages() {
+        assertThat(UserUniqueKeys.duplicateErrorOf(jdbcViolation(
+                "Duplicate entry 'a@example.com' for key 'users.uk_users_email'")))
+                .contains(ErrorCode.EMAIL_ALREADY_EXISTS);
+        // 用户名本身包含 email 也不会被误判
+        assertThat(UserUniqueKeys.duplicateErrorOf(jdbcViolation(
+                "Duplicate entry 'email_admin' for key 'username'")))
+                .contains(ErrorCode.USERNAME_ALREADY_EXISTS);
+    }
+
+    @Test
+    void otherConstraintsAreNotMapped() {
+        assertThat(UserUniqueKeys.duplicateErrorOf(jdbcViolation(
+                "Duplicate entry '1-2' for key 'user_roles.uk_user_role'"))).isEmpty();
+        assertThat(UserUniqueKeys.duplicateErrorOf(jpaViolation("fk_user_roles_user"))).isEmpty();
+        assertThat(UserUniqueKeys.duplicateErrorOf(new DataIntegrityViolationException("email column too long")))
+                .isEmpty();
+    }
+
+    private static DataIntegrityViolationException jpaViolation(String constraintName) {
+        var sqlException = new SQLIntegrityConstraintViolationException("duplicate");
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("could not execute statement", sqlException, constraintName));
+    }
+
+    private static DuplicateKeyException jdbcViolation(String message) {
+        return new DuplicateKeyException("batch insert failed", new SQLIntegrityConstraintViolationException(message));
+    }
+}
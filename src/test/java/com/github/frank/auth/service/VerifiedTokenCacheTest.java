@@ -0,0 +1,92 @@
+package com.github.frank.auth.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 命中需完整令牌相等，条目在令牌 exp 时过期，容量固定，可按 jti 清除
+ */
+class VerifiedTokenCacheTest {
+
+    private static final long NOW = 1_700_000_000_000L;
+
+    @Test
+    void returnsCachedClaimsUntilTokenExpires() {
+        var cache = new VerifiedTokenCache(16);
+        var info = info("jti-1", NOW + 1_000);
+        cache.put("token-1", info, NOW);
+
+        assertThat(cache.get("token-1", NOW)).isSameAs(info);
+        assertThat(cache.get("token-1", NOW + 999)).isSameAs(info);
+        assertThat(cache.get("token-1", NOW + 1_000)).isNull();
+        // 过期条目在读取时被移除
+        assertThat(cache.get("token-1", NOW)).isNull();
+    }
+
+    @Test
+    void missesForDifferentToken() {
+        var cache = new VerifiedTokenCache(16);
+        cache.put("token-1", info("jti-1", NOW + 1_000), NOW);
+
+        assertThat(cache.get("token-2", NOW)).isNull();
+        assertThat(cache.get("token-", NOW)).isNull();
+    }
+
+    @Test
+    void ignoresAlreadyExpiredTokens() {
+        var cache = new VerifiedTokenCache(16);
+        cache.put("token-1", info("jti-1", NOW), NOW);
+
+        assertThat(cache.get("token-1", NOW - 1)).isNull();
+    }
+
+    @Test
+    void staysBoundedAndKeepsLatestEntry() {
+        var cache = new VerifiedTokenCache(4);
+        for (int i = 0; i < 1_000; i++) {
+            cache.put("token-" + i, info("jti-" + i, NOW + 1_000 + i), NOW);
+        }
+
+        int hits = 0;
+        for (int i = 0; i < 1_000; i++) {
+            if (cache.get("token-" + i, NOW) != null) {
+                hits++;
+            }
+        }
+        // 容量取不小于 maxEntries 的 2 的幂的两倍
+        assertThat(hits).isBetween(1, 8);
+        assertThat(cache.get("token-999", NOW)).isNotNull();
+    }
+
+    @Test
+    void purgesAllEntriesOfTokenId() {
+        var cache = new VerifiedTokenCache(16);
+        cache.put("token-a", info("jti-1", NOW + 1_000), NOW);
+        cache.put("token-b", info("jti-1", NOW + 1_000), NOW);
+        cache.put("token-c", info("jti-2", NOW + 1_000), NOW);
+
+        assertThat(cache.purgeTokenId("jti-1")).isEqualTo(2);
+        assertThat(cache.get("token-a", NOW)).isNull();
+        assertThat(cache.get("token-b", NOW)).isNull();
+        assertThat(cache.get("token-c", NOW)).isNotNull();
+    }
+
+    @Test
+    void clearRemovesEverything() {
+        var cache = new VerifiedTokenCache(16);
+        cache.put("token-1", info("jti-1", NOW + 1_000), NOW);
+
+        cache.clear();
+
+        assertThat(cache.get("token-1", NOW)).isNull();
+    }
+
+    private static JwtService.JwtTokenInfo info(String tokenId, long expiresAtMillis) {
+        return new JwtService.JwtTokenInfo("alice", Instant.ofEpochMilli(expiresAtMillis), tokenId, Set.of("ROLE_USER"),
+                1L, 0);
+    }
+}
@@ -0,0 +1,57 @@
+package com.github.frank.common.config;
+
+import com.github.frank.common.exception.DatabaseBusyException;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+/**
+ * 许可用尽时在超时后抛出 DatabaseBusyException；close 归还许可且只归还一次；获取连接失败时许可不泄漏
+ */
+class ConcurrencyLimitingDataSourceTest {
+
+    private final DataSource target = mock(DataSource.class);
+    private final ConcurrencyLimitingDataSource dataSource =
+            new ConcurrencyLimitingDataSource(target, 1, Duration.ofMillis(20));
+
+    @Test
+    void failsFastWhenPermitsAreExhausted() throws SQLException {
+        when(target.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+        var held = dataSource.getConnection();
+
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(DatabaseBusyException.class);
+
+        held.close();
+        assertThat(dataSource.getConnection()).isNotNull();
+    }
+
+    @Test
+    void repeatedCloseReleasesOnlyOnePermit() throws SQLException {
+        var twoPermits = new ConcurrencyLimitingDataSource(target, 2, Duration.ofMillis(20));
+        when(target.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+        var first = twoPermits.getConnection();
+        first.close();
+        first.close();
+
+        twoPermits.getConnection();
+        twoPermits.getConnection();
+        assertThatThrownBy(twoPermits::getConnection).isInstanceOf(DatabaseBusyException.class);
+    }
+
+    @Test
+    void permitIsReturnedWhenTargetFails() throws SQLException {
+        when(target.getConnection())
+                .thenThrow(new SQLException("connection refused"))
+                .thenAnswer(invocation -> mock(Connection.class));
+
+        assertThatThrownBy(dataSource::getConnection).hasMessage("connection refused");
+        assertThat(dataSource.getConnection()).isNotNull();
+    }
+}
@@ -0,0 +1,117 @@
+package com.github.frank.common.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 登录按 IP 与用户名分别限流，注册只按 IP；下游仍能读到完整请求体
+ */
+class RateLimitFilterTest {
+
+    // 每分钟 1 个令牌：测试期间不会补充
+    private final RateLimitFilter filter = new RateLimitFilter(new ObjectMapper().findAndRegisterModules(),
+            new SimpleMeterRegistry(), true, 1, 3, 1, 1, 1, 1, 1000, 16);
+
+    @Test
+    void loginIsLimitedPerUsernameAcrossIps() throws Exception {
+        assertThat(login("10.0.0.1", "alice").getStatus()).isEqualTo(200);
+
+        var rejected = login("10.0.0.2", "ALICE");
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("60");
+        assertThat(login("10.0.0.2", "bob").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void loginIsLimitedPerIpAcrossUsernames() throws Exception {
+        assertThat(login("10.0.0.1", "alice").getStatus()).isEqualTo(200);
+        assertThat(login("10.0.0.1", "bob").getStatus()).isEqualTo(200);
+        assertThat(login("10.0.0.1", "carol").getStatus()).isEqualTo(200);
+
+        assertThat(login("10.0.0.1", "dave").getStatus()).isEqualTo(429);
+        assertThat(login("10.0.0.2", "dave").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void registerIsLimitedPerIpOnly() throws Exception {
+        assertThat(post("/api/v1/auth/register", "10.0.0.1", "{}", new ArrayList<>()).getStatus()).isEqualTo(200);
+        assertThat(post("/api/v1/auth/register", "10.0.0.1", "{}", new ArrayList<>()).getStatus()).isEqualTo(429);
+        // 注册与登录使用不同的桶
+        assertThat(login("10.0.0.1", "alice").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void otherRoutesAreNotLimited() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            assertThat(post("/api/v1/auth/refresh", "10.0.0.1", "{}", new ArrayList<>()).getStatus()).isEqualTo(200);
+        }
+    }
+
+    @Test
+    void downstreamReadsFullBodyAfterInspection() throws Exception {
+        var body = "{\"username\":\"alice\",\"password\":\"" + "x".repeat(10_000) + "\"}";
+        var bodies = new ArrayList<String>();
+
+        post("/api/v1/auth/login", "10.0.0.1", body, bodies);
+
+        assertThat(bodies).containsExactly(body);
+    }
+
+    @Test
+    void readListenerIsNotifiedImmediately() throws Exception {
+        var request = new MockHttpServletRequest("POST", "/api/v1/auth/login");
+        request.setContent("{\"username\":\"alice\"}".getBytes(StandardCharsets.UTF_8));
+        var inputStream = new CachedBodyHttpServletRequest(request, 4).getInputStream();
+        var events = new ArrayList<String>();
+
+        inputStream.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                events.add(new String(inputStream.readAllBytes(), StandardCharsets.UTF_8));
+            }
+
+            @Override
+            public void onAllDataRead() {
+                events.add("done");
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                events.add("error");
+            }
+        });
+
+        assertThat(events).containsExactly("{\"username\":\"alice\"}", "done");
+    }
+
+    private MockHttpServletResponse login(String ip, String username) throws Exception {
+        return post("/api/v1/auth/login", ip, "{\"username\":\"" + username + "\",\"password\":\"secret\"}",
+                new ArrayList<>());
+    }
+
+    private MockHttpServletResponse post(String path, String ip, String body, List<String> downstreamBodies)
+            throws Exception {
+        var request = new MockHttpServletRequest("POST", path);
+        request.setRemoteAddr(ip);
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        var response = new MockHttpServletResponse();
+        FilterChain chain = (req, res) ->
+                downstreamBodies.add(new String(req.getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+}
@@ -0,0 +1,74 @@
+package com.github.frank.common.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * GCRA 计算：时间由测试直接给出，不依赖真实时钟
+ */
+class TokenBucketRateLimiterTest {
+
+    // 每分钟 60 个，即每秒补充一个
+    private static final long SECOND = Duration.ofSeconds(1).toNanos();
+
+    @Test
+    void fullBucketAllowsBurstThenReportsWait() {
+        var limiter = new TokenBucketRateLimiter(60, 3, 100, 16);
+
+        assertThat(limiter.tryAcquire("a", 0)).isZero();
+        assertThat(limiter.tryAcquire("a", 0)).isZero();
+        assertThat(limiter.tryAcquire("a", 0)).isZero();
+        assertThat(limiter.tryAcquire("a", 0)).isEqualTo(SECOND);
+        // 被拒绝的请求不消耗令牌
+        assertThat(limiter.tryAcquire("a", SECOND / 2)).isEqualTo(SECOND / 2);
+    }
+
+    @Test
+    void tokensRefillAtEmissionInterval() {
+        var limiter = new TokenBucketRateLimiter(60, 2, 100, 16);
+        limiter.tryAcquire("a", 0);
+        limiter.tryAcquire("a", 0);
+
+        assertThat(limiter.tryAcquire("a", SECOND)).isZero();
+        assertThat(limiter.tryAcquire("a", SECOND)).isEqualTo(SECOND);
+        // 空闲足够久也只回满到 burst，不会累积更多
+        long later = 100 * SECOND;
+        assertThat(limiter.tryAcquire("a", later)).isZero();
+        assertThat(limiter.tryAcquire("a", later)).isZero();
+        assertThat(limiter.tryAcquire("a", later)).isEqualTo(SECOND);
+    }
+
+    @Test
+    void keysAreLimitedIndependently() {
+        var limiter = new TokenBucketRateLimiter(60, 1, 100, 16);
+
+        assertThat(limiter.tryAcquire("a", 0)).isZero();
+        assertThat(limiter.tryAcquire("a", 0)).isPositive();
+        assertThat(limiter.tryAcquire("b", 0)).isZero();
+    }
+
+    @Test
+    void keysBeyondMaxKeysShareOverflowStripes() {
+        var limiter = new TokenBucketRateLimiter(60, 1, 1, 1);
+        assertThat(limiter.tryAcquire("a", 0)).isZero();
+
+        // 超出 maxKeys 的键不会新建精确桶，但仍然受限
+        assertThat(limiter.tryAcquire("b", 0)).isZero();
+        assertThat(limiter.tryAcquire("b", 0)).isPositive();
+        assertThat(limiter.evictIdle(0)).isZero();
+    }
+
+    @Test
+    void evictsOnlyRefilledBuckets() {
+        var limiter = new TokenBucketRateLimiter(60, 2, 100, 16);
+        limiter.tryAcquire("a", 0);
+        limiter.tryAcquire("b", 0);
+        limiter.tryAcquire("b", 0);
+
+        assertThat(limiter.evictIdle(SECOND)).isEqualTo(1);
+        assertThat(limiter.evictIdle(2 * SECOND)).isEqualTo(1);
+    }
+}
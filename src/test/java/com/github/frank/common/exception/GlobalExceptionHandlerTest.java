@@ -0,0 +1,44 @@
+package com.github.frank.common.exception;
+
+import com.github.frank.common.metrics.AuthMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 数据库许可超时无论被 Spring 包装成哪种异常都映射为 503 + Retry-After，其他数据访问异常仍为 500
+ */
+class GlobalExceptionHandlerTest {
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler(new AuthMetrics(new SimpleMeterRegistry()));
+    private final MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+
+    @Test
+    void permitTimeoutBehindTransactionIsServiceBusy() {
+        var ex = new CannotCreateTransactionException("Could not open JPA EntityManager for transaction",
+                new DataAccessResourceFailureException("Unable to acquire JDBC Connection",
+                        new DatabaseBusyException("Timed out waiting for a database permit")));
+
+        var response = handler.handleDataAccessException(ex, request);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        assertThat(response.getBody().code()).isEqualTo(ErrorCode.SERVICE_BUSY.getCode());
+    }
+
+    @Test
+    void otherDataAccessFailuresStayInternalErrors() {
+        var ex = new DataAccessResourceFailureException("Communications link failure");
+
+        var response = handler.handleDataAccessException(ex, request);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+        assertThat(response.getBody().code()).isEqualTo(ErrorCode.SYSTEM_ERROR.getCode());
+    }
+}
@@ -0,0 +1,134 @@
+package com.github.frank.common.invalidation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 在 H2（MySQL 兼容模式）上验证轮询：settle-window 内的行重读去重，已稳定前缀推进水位，分页拉取
+ */
+class JdbcPollingInvalidationBusTest {
+
+    private static final String OTHER_NODE = "other-node";
+
+    private JdbcTemplate jdbcTemplate;
+    private final List<String> received = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        var dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID()
+                + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/V12__create_invalidation_events.sql"))
+                .execute(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Test
+    void unsettledEventsAreDeliveredOnceAndLateCommitsAreStillSeen() {
+        var bus = bus(2);
+        insert(6, "bob", 0);
+        bus.poll();
+        bus.poll();
+        assertThat(received).containsExactly("bob");
+
+        // id 5 先分配、后提交：6 仍在 settle-window 内，水位未越过，5 仍会被读到
+        insert(5, "alice", 0);
+        bus.poll();
+        assertThat(received).containsExactly("bob", "alice");
+    }
+
+    @Test
+    void settledPrefixAdvancesWatermark() {
+        var bus = bus(2);
+        insert(10, "alice", -60);
+        bus.poll();
+
+        // 超过 settle-window 才提交的事件落在水位之下，不再投递（见类注释中的长事务限制）
+        insert(9, "late", -60);
+        bus.poll();
+        assertThat(received).containsExactly("alice");
+    }
+
+    @Test
+    void watermarkStopsAtFirstUnsettledRow() {
+        var bus = bus(2);
+        insert(1, "settled-1", -60);
+        insert(2, "recent", 0);
+        insert(3, "settled-3", -60);
+        bus.poll();
+        assertThat(received).containsExactly("settled-1", "recent", "settled-3");
+
+        // 水位停在 1：之后的行每次轮询都会重读，新出现的 4 被投递，已投递的 2、3 不会重复
+        insert(4, "late-after-recent", -60);
+        bus.poll();
+        assertThat(received).containsExactly("settled-1", "recent", "settled-3", "late-after-recent");
+    }
+
+    @Test
+    void pagesThroughBacklogInOnePoll() {
+        var bus = bus(2);
+        for (int id = 1; id <= 5; id++) {
+            insert(id, "user-" + id, -60);
+        }
+
+        bus.poll();
+
+        assertThat(received).containsExactly("user-1", "user-2", "user-3", "user-4", "user-5");
+    }
+
+    @Test
+    void ownEventsAreDeliveredLocallyOnly() {
+        var bus = bus(10);
+
+        bus.publish(InvalidationEvent.Type.USER, "alice");
+        bus.poll();
+
+        assertThat(received).containsExactly("alice");
+        assertThat(jdbcTemplate.queryForObject("select count(*) from invalidation_events", Integer.class)).isEqualTo(1);
+    }
+
+    @Test
+    void startsAfterExistingEvents() {
+        insert(1, "history", -60);
+
+        bus(10).poll();
+
+        assertThat(received).isEmpty();
+    }
+
+    @Test
+    void deletesEventsOlderThanRetention() {
+        var bus = bus(10);
+        insert(1, "old", -7200);
+        insert(2, "recent", 0);
+
+        bus.deleteExpired();
+
+        assertThat(jdbcTemplate.queryForList("select event_key from invalidation_events", String.class))
+                .containsExactly("recent");
+    }
+
+    private JdbcPollingInvalidationBus bus(int pageSize) {
+        var bus = new JdbcPollingInvalidationBus(jdbcTemplate, Duration.ofSeconds(10), Duration.ofHours(1), pageSize);
+        bus.init();
+        bus.subscribe(InvalidationEvent.Type.USER, received::addAll);
+        return bus;
+    }
+
+    private void insert(long id, String key, int createdOffsetSeconds) {
+        jdbcTemplate.update("""
+                        insert into invalidation_events (id, event_type, event_key, origin, created_at)
+                        values (?, 'USER', ?, ?, timestampadd(second, ?, localtimestamp(3)))""",
+                id, key, OTHER_NODE, createdOffsetSeconds);
+    }
+}